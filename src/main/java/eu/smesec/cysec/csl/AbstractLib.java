@@ -31,6 +31,7 @@ import eu.smesec.cysec.csl.parser.ParserException;
 import eu.smesec.cysec.csl.skills.Endurance;
 import eu.smesec.cysec.csl.skills.RecommendationFactory;
 import eu.smesec.cysec.csl.skills.ScoreFactory;
+import eu.smesec.cysec.csl.utils.QuestionIndex;
 import eu.smesec.cysec.csl.utils.Utils;
 import eu.smesec.cysec.platform.bridge.*;
 import eu.smesec.cysec.platform.bridge.execptions.CacheException;
@@ -264,17 +265,15 @@ public abstract class AbstractLib implements CoachLibrary {
 
     @Override
     public List<Question> peekQuestions(Question question) {
-        return getActiveQuestions().stream()
-                .map(id -> Utils.findById(questionnaire, id))
-                .collect(Collectors.toList());
+        QuestionIndex index = QuestionIndex.of(questionnaire);
+        return getActiveQuestions().stream().map(index::get).collect(Collectors.toList());
     }
 
     @Override
     public List<Tuple<FQCN, Question>> peekQuestionsIncludingSubcoaches(FQCN fqcn) {
         // Get active question ids and map them to question objects
-        List<Question> questions = getActiveQuestions().stream()
-                .map(id -> Utils.findById(questionnaire, id))
-                .collect(Collectors.toList());
+        QuestionIndex index = QuestionIndex.of(questionnaire);
+        List<Question> questions = getActiveQuestions().stream().map(index::get).collect(Collectors.toList());
 
         // Get subcoach questions
         Map<String, List<String>> subcoachQuestions = executorContext.getSubcoachActiveQuestionsCache();
@@ -285,14 +284,14 @@ public abstract class AbstractLib implements CoachLibrary {
                     Tuple<FQCN, Question> fqcnQuestionTuple = new Tuple<>(fqcn, q);
                     if (Objects.equals(q.getType(), QuestionType.SUBCOACH)) {
                         try {
-                            Questionnaire subCoach = cal.getCoach(q.getSubcoachId());
+                            QuestionIndex subCoachIndex = QuestionIndex.of(cal.getCoach(q.getSubcoachId()));
                             String subCoachKey = q.getSubcoachId() + "." + q.getInstanceName();
                             Stream<Tuple<FQCN, Question>> subQuestions =
                                     Optional.ofNullable(subcoachQuestions.get(subCoachKey)).stream()
                                             .flatMap(qs -> qs.stream()
                                                     .map(id -> new Tuple<>(
                                                             FQCN.fromString(fqcn.getRootCoachId() + "." + subCoachKey),
-                                                            Utils.findById(subCoach, id))));
+                                                            subCoachIndex.get(id))));
                             return Stream.concat(Stream.of(fqcnQuestionTuple), subQuestions);
                         } catch (CacheException e) {
                             logger.severe("An error occurred while getting active questions of subcoaches");
@@ -351,6 +350,10 @@ public abstract class AbstractLib implements CoachLibrary {
         // Add all subcoach variables into JSP model
         values.put("subcoachVariables", executorContext.getSubcoachVariablesCache());
 
+        // Add the shares of the subcoach instances in the scores into JSP model
+        values.put("subcoachScores", executorContext.getSubcoachScores().getInstances());
+        values.put("subcoachScoreTotals", executorContext.getSubcoachScores().getTotals());
+
         // Add recommendations to JSP model
         if (executorContext instanceof CySeCExecutorContextFactory.CySeCExecutorContext) {
             CySeCExecutorContextFactory.CySeCExecutorContext cySeCExecutorContext =
@@ -457,6 +460,7 @@ public abstract class AbstractLib implements CoachLibrary {
     @Override
     public void onRemove(FQCN fqcn) {
         executorContext.getSubcoachVariablesCache().remove(fqcn.getCoachId() + "." + fqcn.getName());
+        executorContext.removeSubcoachScores(fqcn.getCoachId(), fqcn.getName());
     }
 
     @Override
@@ -500,15 +504,9 @@ public abstract class AbstractLib implements CoachLibrary {
         List<Command> commands = new ArrayList<>();
 
         // find block that contains the passed questionId
-        String blockId = "b1";
-        if (questionnaire.getBlocks() != null) {
-            for (Block blockCandidate : questionnaire.getBlocks().getBlock()) {
-                Optional<Question> optional = blockCandidate.getQidList().stream()
-                        .map(Question.class::cast)
-                        .filter(question -> question.getId().equals(questionId))
-                        .findFirst();
-                if (optional.isPresent()) blockId = blockCandidate.getId();
-            }
+        String blockId = QuestionIndex.of(questionnaire).getBlockId(questionId);
+        if (blockId == null) {
+            blockId = "b1";
         }
         Command updateActiveQuestions = new Command(
                 Commands.UPDATE_ACTIVE_QUESTIONS.toString(),
@@ -584,6 +582,8 @@ public abstract class AbstractLib implements CoachLibrary {
 
     @Override
     public void setQuestionnaire(Questionnaire questionnaire) {
+        // the content of the questionnaire may have changed even if the instance is the same
+        QuestionIndex.invalidate(questionnaire);
         this.questionnaire = questionnaire;
     }
 
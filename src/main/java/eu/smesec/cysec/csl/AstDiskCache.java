@@ -0,0 +1,306 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl;
+
+import eu.smesec.cysec.csl.parser.AstSerializer;
+import eu.smesec.cysec.csl.parser.Command;
+import eu.smesec.cysec.csl.parser.CySeCLineAtom;
+import eu.smesec.cysec.csl.parser.SourceText;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistent cache of parsed CSL programs.
+ * <p>Programs are stored in a directory, one file per program named after the SHA-256 hash of its
+ * source code, the {@link AstSerializer#FORMAT_VERSION}, the registered commands and the configuration
+ * the logic is processed with, so changed logic, commands or settings never hit a stale entry. Entries
+ * written with another format version are ignored and overwritten. The cache never fails the
+ * caller: unreadable entries count as misses and write errors are only logged.</p>
+ * <p>As the entries are executable logic, the directory must be private: it is created accessible by its owner
+ * only, and a directory which is not owned by the current user, is a symbolic link or is writable by others is
+ * not used at all. Once the cache holds more than its maximum number of entries, the oldest entries are
+ * deleted.</p>
+ */
+public class AstDiskCache {
+    private static final String SUFFIX = ".ast";
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private final Path directory;
+    private final Logger logger;
+    private final int maxEntries;
+    private final String configuration;
+    // null until the directory has been checked on first use
+    private Boolean usable = null;
+
+    /**
+     * Creates a cache in the given directory, which is created on first use.
+     * @param directory the directory holding the cached programs
+     * @param logger the logger to report problems to
+     */
+    public AstDiskCache(Path directory, Logger logger) {
+        this(directory, logger, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a cache in the given directory, which is created on first use.
+     * @param directory the directory holding the cached programs
+     * @param logger the logger to report problems to
+     * @param maxEntries the maximum number of cached programs, zero or less for no bound
+     */
+    public AstDiskCache(Path directory, Logger logger, int maxEntries) {
+        this(directory, logger, maxEntries, "");
+    }
+
+    /**
+     * Creates a cache in the given directory, which is created on first use.
+     * @param directory the directory holding the cached programs
+     * @param logger the logger to report problems to
+     * @param maxEntries the maximum number of cached programs, zero or less for no bound
+     * @param configuration the settings the cached programs are processed with, part of the key of the entries
+     */
+    public AstDiskCache(Path directory, Logger logger, int maxEntries, String configuration) {
+        this.directory = directory;
+        this.logger = logger;
+        this.maxEntries = maxEntries;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Creates the cache configured in the library properties.
+     * @param logger the logger to report problems to
+     * @return the cache, or null if the disk cache is disabled
+     */
+    public static AstDiskCache fromProperties(Logger logger) {
+        if (!Boolean.parseBoolean(AbstractLib.prop.getProperty("coach.parser.diskCache", "false"))) {
+            return null;
+        }
+        String dir = AbstractLib.prop.getProperty("coach.parser.diskCacheDir", "").trim();
+        Path directory = dir.isEmpty()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "cysec-csl-ast-" + System.getProperty("user.name"))
+                : Paths.get(dir);
+        int maxEntries = Integer.parseInt(AbstractLib.prop
+                .getProperty("coach.parser.diskCacheMaxEntries", String.valueOf(DEFAULT_MAX_ENTRIES))
+                .trim());
+        String configuration = "typeCheck=" + AbstractLib.prop.getProperty("coach.parser.typeCheck", "true").trim()
+                + ";optimize=" + AbstractLib.prop.getProperty("coach.parser.optimize", "true").trim();
+        return new AstDiskCache(directory, logger, maxEntries, configuration);
+    }
+
+    /**
+     * Loads the program parsed from the given source code.
+     * @param code the source code of the program
+     * @return the program, or null if it is not cached
+     */
+    public List<CySeCLineAtom> load(String code) {
+        if (!isUsable()) {
+            return null;
+        }
+        Path file = getFile(code);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return AstSerializer.read(in, new SourceText(code));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.FINE, "Ignoring unusable AST cache entry " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the program parsed from the given source code.
+     * @param code the source code of the program
+     * @param program the parsed program
+     */
+    public void store(String code, List<CySeCLineAtom> program) {
+        if (!isUsable()) {
+            return;
+        }
+        Path file = getFile(code);
+        Path tmp = null;
+        try {
+            // write to a temporary file first, so concurrent readers never see partial entries
+            tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                AstSerializer.write(program, out);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            prune();
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Unable to write AST cache entry " + file, e);
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // nothing left to do
+                }
+            }
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Creates the directory accessible by its owner only, or checks that an existing directory is private.
+     * @return true if the directory may be used
+     */
+    private synchronized boolean isUsable() {
+        if (usable == null) {
+            try {
+                boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+                if (Files.notExists(directory, LinkOption.NOFOLLOW_LINKS)) {
+                    if (directory.getParent() != null) {
+                        Files.createDirectories(directory.getParent());
+                    }
+                    if (posix) {
+                        Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+                    } else {
+                        Files.createDirectory(directory);
+                    }
+                }
+                usable = isPrivate(posix);
+                if (!usable) {
+                    logger.warning("AST cache disabled, " + directory
+                            + " is not a directory owned by the current user and writable by its owner only");
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "AST cache disabled, unable to create " + directory, e);
+                usable = false;
+            }
+        }
+        return usable;
+    }
+
+    private boolean isPrivate(boolean posix) throws IOException {
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+        UserPrincipal user = directory.getFileSystem()
+                .getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!user.equals(Files.getOwner(directory, LinkOption.NOFOLLOW_LINKS))) {
+            return false;
+        }
+        if (posix) {
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory, LinkOption.NOFOLLOW_LINKS);
+            return !permissions.contains(PosixFilePermission.GROUP_WRITE)
+                    && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+        }
+        return true;
+    }
+
+    /* deletes the oldest entries beyond the maximum number of entries */
+    private void prune() throws IOException {
+        if (maxEntries <= 0) {
+            return;
+        }
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(entries::add);
+        }
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        Map<Path, FileTime> modified = new HashMap<>();
+        for (Path entry : entries) {
+            try {
+                modified.put(entry, Files.getLastModifiedTime(entry));
+            } catch (NoSuchFileException e) {
+                // pruned concurrently
+            }
+        }
+        List<Path> oldest = new ArrayList<>(modified.keySet());
+        oldest.sort(Comparator.comparing(modified::get));
+        for (int i = 0; i < oldest.size() - maxEntries; i++) {
+            Files.deleteIfExists(oldest.get(i));
+        }
+    }
+
+    private Path getFile(String code) {
+        return directory.resolve(getKey(code) + SUFFIX);
+    }
+
+    /**
+     * Computes the key of the entry of a program.
+     * @param code the source code of the program
+     * @return the hash of the source code, the format version, the registered commands and the configuration
+     */
+    public String getKey(String code) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(AstSerializer.FORMAT_VERSION).append('\n').append(configuration).append('\n');
+        // a command of the same name may be replaced by another implementation
+        for (Map.Entry<String, Command> command : new TreeMap<>(Command.getCommands()).entrySet()) {
+            sb.append(command.getKey()).append('=').append(command.getValue().getClass().getName()).append(';');
+        }
+        return hash(sb.append('\n').append(code).toString());
+    }
+
+    /**
+     * Computes the key of a program.
+     * @param code the source code of the program
+     * @return the hex encoded SHA-256 hash of the UTF-8 encoded source code
+     */
+    public static String hash(String code) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(code.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -20,6 +20,7 @@
 package eu.smesec.cysec.csl;
 
 import eu.smesec.cysec.csl.parser.*;
+import eu.smesec.cysec.csl.utils.Utils;
 import eu.smesec.cysec.platform.bridge.FQCN;
 import eu.smesec.cysec.platform.bridge.ILibCal;
 import eu.smesec.cysec.platform.bridge.QuestionAnswerState;
@@ -30,6 +31,8 @@ import eu.smesec.cysec.platform.bridge.generated.Question;
 import eu.smesec.cysec.platform.bridge.md.MetadataUtils;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -42,29 +45,103 @@ public class LogicRunner {
     private final String logicMetadataKey;
     private final String logicMvalueKey;
 
-    private final List<CySeCLineAtom> logicPreAst = new ArrayList<>();
-    private final List<CySeCLineAtom> logicPostAst = new ArrayList<>();
-    private final List<CySeCLineAtom> logicOnBeginAst = new ArrayList<>();
-    private final Map<String, List<CySeCLineAtom>> questionsAst;
+    // pre, post and onBegin logic indexed by their conditions, set once the logic has been parsed
+    private ConditionIndex logicPreAst = new ConditionIndex(Collections.emptyList());
+    private ConditionIndex logicPostAst = new ConditionIndex(Collections.emptyList());
+    private ConditionIndex logicOnBeginAst = new ConditionIndex(Collections.emptyList());
+    private final QuestionLogicCache questionsAst;
+
+    // if set, the question logic parsed while loading the coach is parsed in parallel
+    private final boolean parallel;
+    // executor parsing the question logic in parallel, null to use a pool of its own for parsing in parallel
+    private final Executor parseExecutor;
+    // if set, question logic is parsed on first use instead of while loading the coach (takes precedence over
+    // parallel parsing, which only applies to the question logic parsed while loading)
+    private final boolean lazyQuestions;
+    // persistent cache of parsed logic, null if disabled
+    private final AstDiskCache astDiskCache;
+    // if set, calls are checked against the signatures of their commands when the logic is loaded
+    private final boolean typeCheck;
+    private final AstOptimizer optimizer;
+    private final boolean compile;
 
     private final CompletableFuture<Void> parseTask;
 
+    /**
+     * Creates a logic runner parsing the question logic as configured in the library properties.
+     * <p>If the question logic is parsed in parallel (<code>coach.parser.parallel</code>), it is parsed on a pool of
+     * <code>coach.parser.threads</code> threads (by default one per processor) created for loading the coach and
+     * shut down once the logic has been parsed.</p>
+     *
+     * @param logger the logger to use
+     * @param cal the library callback
+     * @param library the library this runner belongs to
+     * @param metadataList contains the metadata of the questionnaire, which in turn contains the CSL code
+     */
     public LogicRunner(Logger logger, ILibCal cal, AbstractLib library, List<Metadata> metadataList) {
+        this(
+                logger,
+                cal,
+                library,
+                metadataList,
+                null,
+                Boolean.parseBoolean(AbstractLib.prop.getProperty("coach.parser.parallel", "false")));
+    }
+
+    /**
+     * Creates a logic runner parsing the question logic on the given executor.
+     * <p>The executor is only used if the question logic is not parsed lazily (<code>coach.parser.lazy</code>),
+     * as lazily parsed logic is parsed by the thread first using it. No parse task waits for another one, so any
+     * pool may be used.</p>
+     *
+     * @param logger the logger to use
+     * @param cal the library callback
+     * @param library the library this runner belongs to
+     * @param metadataList contains the metadata of the questionnaire, which in turn contains the CSL code
+     * @param parseExecutor the executor parsing the logic of the questions in parallel, or null to parse sequentially
+     */
+    public LogicRunner(
+            Logger logger, ILibCal cal, AbstractLib library, List<Metadata> metadataList, Executor parseExecutor) {
+        this(logger, cal, library, metadataList, parseExecutor, parseExecutor != null);
+    }
+
+    private LogicRunner(
+            Logger logger,
+            ILibCal cal,
+            AbstractLib library,
+            List<Metadata> metadataList,
+            Executor parseExecutor,
+            boolean parallel) {
         this.cal = cal;
+        this.parallel = parallel;
+        this.parseExecutor = parseExecutor;
         this.library = library;
         this.logger = logger;
         logicMetadataKey = AbstractLib.prop.getProperty("coach.metadata.logic");
         logicMvalueKey = AbstractLib.prop.getProperty("coach.mvalue.logic");
-        questionsAst = Collections.synchronizedMap(new LinkedHashMap<>(1000, 0.75f, false) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, List<CySeCLineAtom>> eldest) {
-                return size() > 1000;
-            }
-        });
+        astDiskCache = AstDiskCache.fromProperties(logger);
+        typeCheck = Boolean.parseBoolean(AbstractLib.prop.getProperty("coach.parser.typeCheck", "true"));
+        optimizer = Boolean.parseBoolean(AbstractLib.prop.getProperty("coach.parser.optimize", "true"))
+                ? new AstOptimizer()
+                : null;
+        compile = Boolean.parseBoolean(AbstractLib.prop.getProperty("coach.parser.compile", "true"));
+        lazyQuestions = Boolean.parseBoolean(AbstractLib.prop.getProperty("coach.parser.lazy", "true"));
+        questionsAst = new QuestionLogicCache(
+                Integer.parseInt(AbstractLib.prop.getProperty("coach.parser.cacheSize", "1000")),
+                QuestionLogicCache.EvictionPolicy.valueOf(AbstractLib.prop
+                        .getProperty("coach.parser.cacheEviction", "LRU")
+                        .trim()
+                        .toUpperCase()));
+
+        if (lazyQuestions && parallel) {
+            logger.warning("Parallel parsing is ignored for coach " + library.getId()
+                    + ", as coach.parser.lazy is set its question logic is parsed on demand");
+        }
 
         // Parse the logic of the coach, this is done async because it can take a few seconds to
         // parse
-        parseTask = CompletableFuture.runAsync(() -> parseLogic(metadataList));
+        parseTask = CompletableFuture.runAsync(() -> parseLogic(metadataList))
+                .thenCompose(ignored -> parseQuestionsLogic());
     }
 
     public void runOnBegin(FQCN fqcn) throws ParserException, ExecutorException {
@@ -73,7 +150,7 @@ public class LogicRunner {
         Question fakeQuestion = new Question();
         fakeQuestion.setId("qOnBegin");
 
-        runAst(fakeQuestion, logicOnBeginAst, fqcn);
+        runAst(fakeQuestion, Collections.singletonList(logicOnBeginAst), fqcn);
     }
 
     /**
@@ -85,10 +162,13 @@ public class LogicRunner {
      * @throws ExecutorException If there is an error running the logic
      */
     public void runLogic(Question question, FQCN fqcn) throws ParserException, ExecutorException {
+        // Make sure pre and post logic have been parsed before using them
+        parseTask.join();
+
         // First, we build up a complete ast containing pre, post and question logic
-        List<CySeCLineAtom> ast = new ArrayList<>(logicPreAst);
-        ast.addAll(questionsAst.getOrDefault(question.getId(), new ArrayList<>()));
-        ast.addAll(logicPostAst);
+        // (question logic is parsed and indexed on first use or again after it has been evicted from the cache)
+        List<ConditionIndex> ast = Arrays.asList(
+                logicPreAst, questionsAst.getIndex(question.getId(), this::loadQuestionLogic), logicPostAst);
 
         // Then we can run it
         runAst(question, ast, fqcn);
@@ -98,15 +178,15 @@ public class LogicRunner {
      * This method actually runs the AST. It waits for the parsing to finish and then creates a coach context and
      * executes the AST in this context.
      * @param question The question that whose logic is being run
-     * @param ast the AST to execute
+     * @param ast the AST to execute, as consecutive listings indexed by their conditions
      * @param fqcn the FQCN of the coach instance
      * @throws ExecutorException
      */
-    private void runAst(Question question, List<CySeCLineAtom> ast, FQCN fqcn) throws ExecutorException {
+    private void runAst(Question question, List<ConditionIndex> ast, FQCN fqcn) throws ExecutorException {
         // Make sure paring has finished, otherwise we cannot run the logic
         parseTask.join();
 
-        ExecutorContext context = CySeCExecutorContextFactory.getExecutorContext(
+        CySeCExecutorContextFactory.CySeCExecutorContext context = CySeCExecutorContextFactory.getExecutorContext(
                 library.getQuestionnaire().getId());
 
         // Set the unanswered question count system variable
@@ -129,13 +209,13 @@ public class LogicRunner {
                 library.getQuestionnaire(),
                 fqcn);
         coachContext.setLogger(logger);
-        context.executeQuestion(ast, coachContext);
+        context.executeIndexedQuestion(ast, coachContext);
     }
 
     /**
      * This method parses the logic of the coach into AST, so it's ready to execute when needed.
      * The coach contains pre-question logic, post-question logic, onBegin-logic and question-specific logic.
-     * All of those are parsed and stored in a map.
+     * This method parses the pre-question, post-question and onBegin logic (see {@link #parseQuestionsLogic()}).
      * @param metadataList contains the metadata of the questionnaire, which in turn contains the CSL code
      */
     private void parseLogic(List<Metadata> metadataList) {
@@ -150,27 +230,59 @@ public class LogicRunner {
                             MetadataUtils.parseMvalues(logicMvalueList).get(AbstractLib.prop.getProperty(metadataKey)))
                     .map(MetadataUtils.SimpleMvalue::getValue)
                     .orElse("");
-            logicPreAst.addAll(getAstOfCode(logicExtractor.apply("coach.mvalue.logicPreQuestion")));
-            logicPostAst.addAll(getAstOfCode(logicExtractor.apply("coach.mvalue.logicPostQuestion")));
-            logicOnBeginAst.addAll(getAstOfCode(logicExtractor.apply("coach.mvalue.logicOnBegin")));
-
-            // Parse question logic
-            logger.info("Parsing questions logic of coach " + library.getId());
-
-            for (Question question : library.getQuestionnaire().getQuestions().getQuestion()) {
-                logger.fine("Parsing question logic of question with QID" + question.getId());
-                Map<String, MetadataUtils.SimpleMvalue> map = MetadataUtils.parseMvalues(question.getMetadata().stream()
-                        .filter(metadata -> metadata.getKey().equals(logicMetadataKey))
-                        .flatMap(metadata -> metadata.getMvalue().stream())
-                        .collect(Collectors.toList()));
-                Optional<MetadataUtils.SimpleMvalue> logic = Optional.ofNullable(map.get(logicMvalueKey));
-                if (logic.isPresent()) {
-                    List<CySeCLineAtom> ast = getAstOfCode(logic.get().getValue());
-                    questionsAst.put(question.getId(), ast);
-                }
-            }
+            logicPreAst = new ConditionIndex(getAstOfCode(logicExtractor.apply("coach.mvalue.logicPreQuestion")));
+            logicPostAst = new ConditionIndex(getAstOfCode(logicExtractor.apply("coach.mvalue.logicPostQuestion")));
+            logicOnBeginAst = new ConditionIndex(getAstOfCode(logicExtractor.apply("coach.mvalue.logicOnBegin")));
+        } catch (ParserException e) {
+            logger.severe("Error parsing CSL: " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Parses the logic of the questions into AST and stores it in the cache, unless question logic is parsed lazily
+     * on first use. If parallel parsing is enabled, the logic of the questions is parsed on the parse executor, or on
+     * a pool created for this coach and shut down once the logic has been parsed.
+     * @return a future completed once the logic of all questions has been parsed
+     */
+    private CompletableFuture<Void> parseQuestionsLogic() {
+        if (lazyQuestions) {
+            logger.info("Question logic of coach " + library.getId() + " is parsed on demand");
+            return CompletableFuture.completedFuture(null);
+        }
 
+        logger.info("Parsing questions logic of coach " + library.getId());
+        List<Question> questions = library.getQuestionnaire().getQuestions().getQuestion();
+        if (!parallel) {
+            questions.forEach(this::parseAndCacheQuestionLogic);
             logger.info("Finished parsing of coach " + library.getId());
+            return CompletableFuture.completedFuture(null);
+        }
+        Executor executor = parseExecutor;
+        ForkJoinPool pool = null;
+        if (executor == null) {
+            int threads = Integer.parseInt(AbstractLib.prop.getProperty("coach.parser.threads", "0"));
+            pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+            executor = pool;
+        }
+        // Question logic is independent, so it can be parsed in parallel. The tasks are composed instead of joined,
+        // so no thread of the executor blocks waiting for the others
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[questions.size()];
+        for (int i = 0; i < tasks.length; i++) {
+            Question question = questions.get(i);
+            tasks[i] = CompletableFuture.runAsync(() -> parseAndCacheQuestionLogic(question), executor);
+        }
+        CompletableFuture<Void> parsed = CompletableFuture.allOf(tasks);
+        if (pool != null) {
+            ForkJoinPool ownPool = pool;
+            parsed = parsed.whenComplete((ignored, e) -> ownPool.shutdown());
+        }
+        return parsed.thenRun(() -> logger.info("Finished parsing of coach " + library.getId()));
+    }
+
+    private void parseAndCacheQuestionLogic(Question question) {
+        try {
+            questionsAst.put(question.getId(), parseQuestionLogic(question));
         } catch (ParserException e) {
             logger.severe("Error parsing CSL: " + e.getMessage());
             throw new RuntimeException(e);
@@ -178,13 +290,75 @@ public class LogicRunner {
     }
 
     /**
-     * Parses CSL logic from source code to AST
+     * Loads the logic of a question that is not (or no longer) cached.
+     * @param questionId the ID of the question
+     * @return AST of the question logic, empty if the question is unknown or has no logic
+     * @throws ParserException if the logic is malformed, the exception names the question
+     */
+    private List<CySeCLineAtom> loadQuestionLogic(String questionId) throws ParserException {
+        Question question = Utils.findById(library.getQuestionnaire(), questionId);
+        return question != null ? parseQuestionLogic(question) : Collections.emptyList();
+    }
+
+    /**
+     * Parses the logic of a single question.
+     * @param question the question to parse the logic of
+     * @return AST of the question logic, empty if the question has no logic
+     * @throws ParserException if the logic is malformed, the exception names the question
+     */
+    private List<CySeCLineAtom> parseQuestionLogic(Question question) throws ParserException {
+        logger.fine("Parsing question logic of question with QID" + question.getId());
+        Map<String, MetadataUtils.SimpleMvalue> map = MetadataUtils.parseMvalues(question.getMetadata().stream()
+                .filter(metadata -> metadata.getKey().equals(logicMetadataKey))
+                .flatMap(metadata -> metadata.getMvalue().stream())
+                .collect(Collectors.toList()));
+        Optional<MetadataUtils.SimpleMvalue> logic = Optional.ofNullable(map.get(logicMvalueKey));
+        if (logic.isPresent()) {
+            try {
+                return getAstOfCode(logic.get().getValue());
+            } catch (ParserException e) {
+                ParserException pe = new ParserException(
+                        "in logic of question \"" + question.getId() + "\": " + e.getReason(), e.getParserLine());
+                pe.initCause(e);
+                throw pe;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Parses CSL logic from source code to AST, using the on-disk cache if enabled, checks it against the command
+     * signatures if type checking is enabled (logging a warning for each ill-typed call), folds its constant parts
+     * if the optimizer is enabled and compiles the lines if compilation is enabled
      * @param code the source code to parse
      * @return AST of the passed code
      * @throws ParserException if something goes wrong
      */
     private List<CySeCLineAtom> getAstOfCode(String code) throws ParserException {
         if (code == null) return new ArrayList<>();
-        return new ParserLine(code).getCySeCListing();
+        List<CySeCLineAtom> ast;
+        if (astDiskCache != null && !code.trim().isEmpty()) {
+            // the cache holds the listing as parsed, it is checked and folded like freshly parsed logic
+            ast = astDiskCache.load(code);
+            if (ast == null) {
+                ast = new ParserLine(code).getCySeCListing();
+                astDiskCache.store(code, ast);
+            }
+        } else {
+            ast = new ParserLine(code).getCySeCListing();
+        }
+        if (typeCheck) {
+            // like the runtime checks, ill-typed calls are reported but only fail if they are executed
+            for (String problem : TypeChecker.report(ast)) {
+                logger.warning("Type error in CSL: " + problem);
+            }
+        }
+        if (optimizer != null) {
+            ast = optimizer.optimize(ast);
+        }
+        if (compile) {
+            ast.forEach(CySeCLineAtom::compile);
+        }
+        return ast;
     }
 }
@@ -0,0 +1,154 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl;
+
+import eu.smesec.cysec.csl.parser.ConditionIndex;
+import eu.smesec.cysec.csl.parser.CySeCLineAtom;
+import eu.smesec.cysec.csl.parser.ParserException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache for the compiled logic of questions.
+ * <p>The logic is kept together with the index of its conditions (see {@link ConditionIndex}), which is built once
+ * when the logic is stored. Entries are created on demand by a loader. An entry that has been evicted is simply
+ * compiled again by the loader on its next use, so the bound only limits memory, never the logic
+ * available to a coach.</p>
+ * <p>Unless the logic is parsed lazily (<code>coach.parser.lazy</code>), the cache is filled while the coach is
+ * loaded, in parallel if <code>coach.parser.parallel</code> is set. Lazy parsing takes precedence, the cache is then
+ * filled by the loader only.</p>
+ */
+public class QuestionLogicCache {
+
+    /**
+     * Policy deciding which entry is dropped once the cache exceeds its bound.
+     */
+    public enum EvictionPolicy {
+        /** drop the least recently used entry */
+        LRU,
+        /** drop the oldest entry */
+        FIFO;
+    }
+
+    /**
+     * Compiles the logic of a question on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Compiles the logic of a question.
+         * @param questionId the ID of the question
+         * @return the AST of the question logic (empty if the question has no logic)
+         * @throws ParserException if the logic is malformed
+         */
+        List<CySeCLineAtom> load(String questionId) throws ParserException;
+    }
+
+    private final int maxSize;
+    private final EvictionPolicy policy;
+    private final Map<String, ConditionIndex> entries;
+
+    /**
+     * Creates an empty cache.
+     * @param maxSize the maximum number of cached questions, zero or less for no bound
+     * @param policy the policy selecting the entry to drop once the bound is exceeded
+     */
+    public QuestionLogicCache(int maxSize, EvictionPolicy policy) {
+        this.maxSize = maxSize;
+        this.policy = policy;
+        this.entries = new LinkedHashMap<String, ConditionIndex>(16, 0.75f, policy == EvictionPolicy.LRU) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ConditionIndex> eldest) {
+                return QuestionLogicCache.this.maxSize > 0 && size() > QuestionLogicCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled logic of a question, compiling it with the loader if it is not cached.
+     * <p>The loader runs outside the lock so that several questions may be compiled concurrently.</p>
+     * @param questionId the ID of the question
+     * @param loader the loader used on a cache miss
+     * @return the AST of the question logic
+     * @throws ParserException if the loader fails to compile the logic
+     */
+    public List<CySeCLineAtom> get(String questionId, Loader loader) throws ParserException {
+        return getIndex(questionId, loader).getListing();
+    }
+
+    /**
+     * Returns the compiled logic of a question indexed by its conditions, compiling it with the loader if it is not
+     * cached.
+     * @param questionId the ID of the question
+     * @param loader the loader used on a cache miss
+     * @return the indexed AST of the question logic
+     * @throws ParserException if the loader fails to compile the logic
+     */
+    public ConditionIndex getIndex(String questionId, Loader loader) throws ParserException {
+        ConditionIndex index;
+        synchronized (entries) {
+            index = entries.get(questionId);
+        }
+        if (index == null) {
+            index = put(questionId, loader.load(questionId));
+        }
+        return index;
+    }
+
+    /**
+     * Stores the compiled logic of a question.
+     * @param questionId the ID of the question
+     * @param ast the AST of the question logic
+     * @return the indexed AST as stored
+     */
+    public ConditionIndex put(String questionId, List<CySeCLineAtom> ast) {
+        ConditionIndex index = new ConditionIndex(ast);
+        synchronized (entries) {
+            entries.put(questionId, index);
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether the logic of a question is currently cached without touching the entry.
+     * @param questionId the ID of the question
+     * @return true if the logic is cached
+     */
+    public boolean contains(String questionId) {
+        synchronized (entries) {
+            return entries.containsKey(questionId);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+}
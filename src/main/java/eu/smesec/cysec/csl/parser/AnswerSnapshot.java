@@ -0,0 +1,160 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import eu.smesec.cysec.platform.bridge.FQCN;
+import eu.smesec.cysec.platform.bridge.ILibCal;
+import eu.smesec.cysec.platform.bridge.execptions.CacheException;
+import eu.smesec.cysec.platform.bridge.generated.Answer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The answers read by one run of coach logic.
+ * <p>Answers are loaded from the library once per question on first use, together with the set of
+ * selected options (the tokens of the aid list, or of the text if there is none). Commands changing an
+ * answer invalidate its entry, so the next lookup reads the answer the library holds then.</p>
+ * <p>A snapshot is shared by all copies of a {@link CoachContext} and is not thread safe.</p>
+ */
+public final class AnswerSnapshot {
+
+    private final ILibCal cal;
+    private final String fqcn;
+    private final Map<String, Entry> entries = new HashMap<>();
+    // questions whose answer or visibility the run has changed, in the order of the changes
+    private final List<String> changes = new ArrayList<>();
+
+    /***
+     * <p>Creates an empty snapshot of the answers of a coach instance.</p>
+     *
+     * @param cal  the library callback to load the answers from
+     * @param fqcn the coach instance, may be null if no answers are read
+     */
+    public AnswerSnapshot(ILibCal cal, FQCN fqcn) {
+        this.cal = cal;
+        this.fqcn = fqcn != null ? fqcn.toString() : null;
+    }
+
+    /***
+     * <p>Returns the answer to a question.</p>
+     *
+     * @param questionId the id of the question
+     * @return the answer, or null if the question has not been answered
+     * @throws CacheException if the answer cannot be loaded
+     */
+    public Answer getAnswer(String questionId) throws CacheException {
+        return entry(questionId).answer;
+    }
+
+    /***
+     * <p>Returns the options selected in the answer to a question.</p>
+     *
+     * @param questionId the id of the question
+     * @return the (unmodifiable) selected options, empty if the question has not been answered
+     * @throws CacheException if the answer cannot be loaded
+     */
+    public Set<String> getSelectedOptions(String questionId) throws CacheException {
+        Entry entry = entry(questionId);
+        if (entry.selected == null) {
+            entry.selected = tokenize(entry.answer);
+        }
+        return entry.selected;
+    }
+
+    /***
+     * <p>Drops the answer to a question, so it is loaded again on its next use.</p>
+     *
+     * @param questionId the id of the question
+     */
+    public void invalidate(String questionId) {
+        entries.remove(questionId);
+        changes.add(questionId);
+    }
+
+    /***
+     * <p>Records that the run has changed the visibility of a question.</p>
+     *
+     * @param questionId the id of the question
+     */
+    public void visibilityChanged(String questionId) {
+        changes.add(questionId);
+    }
+
+    /***
+     * <p>Returns the number of changes to answers and to the visibility of questions made by the run so far.</p>
+     *
+     * @return the version of the answer state
+     */
+    public int getVersion() {
+        return changes.size();
+    }
+
+    /***
+     * <p>Returns the question changed by a change of the answer state.</p>
+     *
+     * @param version the version of the answer state before the change
+     * @return the id of the question whose answer or visibility has been changed
+     */
+    public String getChange(int version) {
+        return changes.get(version);
+    }
+
+    private Entry entry(String questionId) throws CacheException {
+        Entry entry = entries.get(questionId);
+        if (entry == null) {
+            // missing answers are kept as well
+            entry = new Entry(cal.getAnswer(fqcn, questionId));
+            entries.put(questionId, entry);
+        }
+        return entry;
+    }
+
+    private static Set<String> tokenize(Answer answer) {
+        if (answer == null) {
+            return Collections.emptySet();
+        }
+        String selection = answer.getAidList() == null ? answer.getText() : answer.getAidList();
+        if (selection == null) {
+            return Collections.emptySet();
+        }
+        Set<String> options = new HashSet<>();
+        for (String option : selection.split(" ")) {
+            if (!option.isEmpty()) {
+                options.add(option);
+            }
+        }
+        return Collections.unmodifiableSet(options);
+    }
+
+    /* the answer to a question and its selected options, tokenized on first use */
+    private static final class Entry {
+        private final Answer answer;
+        private Set<String> selected;
+
+        private Entry(Answer answer) {
+            this.answer = answer;
+        }
+    }
+}
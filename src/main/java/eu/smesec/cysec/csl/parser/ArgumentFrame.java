@@ -0,0 +1,73 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * The arguments of a command call.
+ * <p>An argument frame is a fixed window on the argument stack of the evaluating thread. Frames
+ * are reused for subsequent calls, so a command must not keep the frame (or any view of it) beyond
+ * the call it has been passed to. The frame cannot be modified by the command.</p>
+ */
+public final class ArgumentFrame extends AbstractList<Atom> implements RandomAccess {
+
+    private final ArgumentStack stack;
+    /* position of the frame on the stack of frames */
+    final int index;
+    /* position of the first argument on the argument stack */
+    int offset;
+    int size;
+
+    ArgumentFrame(ArgumentStack stack, int index) {
+        this.stack = stack;
+        this.index = index;
+    }
+
+    @Override
+    public Atom get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("argument " + i + " of " + size);
+        }
+        return stack.atoms[offset + i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /***
+     * <p>Appends an argument.</p>
+     *
+     * @param atom the argument
+     */
+    void push(Atom atom) {
+        stack.push(this, atom);
+    }
+
+    /***
+     * <p>Releases this frame and all frames opened after it.</p>
+     */
+    void release() {
+        stack.release(this);
+    }
+}
@@ -0,0 +1,90 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import java.util.Arrays;
+
+/**
+ * Holds the arguments of the commands being evaluated by a thread.
+ * <p>The arguments of a command are collected on top of the stack and passed to the command as an
+ * {@link ArgumentFrame}. As the evaluation of a parameter completes before the next argument of the
+ * calling command is collected, the frames are opened and released in stack order, and neither the
+ * storage nor the frames are allocated per call.</p>
+ */
+final class ArgumentStack {
+
+    private static final ThreadLocal<ArgumentStack> STACKS = ThreadLocal.withInitial(ArgumentStack::new);
+
+    Atom[] atoms = new Atom[32];
+    private int top = 0;
+    private ArgumentFrame[] frames = new ArgumentFrame[8];
+    private int depth = 0;
+
+    private ArgumentStack() {}
+
+    /***
+     * <p>Returns the argument stack of the current thread.</p>
+     *
+     * @return the stack
+     */
+    static ArgumentStack get() {
+        return STACKS.get();
+    }
+
+    /***
+     * <p>Opens an empty frame on top of the stack.</p>
+     *
+     * @return the frame, to be released once the call has completed
+     */
+    ArgumentFrame open() {
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+        }
+        ArgumentFrame frame = frames[depth];
+        if (frame == null) {
+            frame = new ArgumentFrame(this, depth);
+            frames[depth] = frame;
+        }
+        frame.offset = top;
+        frame.size = 0;
+        depth++;
+        return frame;
+    }
+
+    void push(ArgumentFrame frame, Atom atom) {
+        if (frame.index != depth - 1) {
+            throw new IllegalStateException("arguments may only be added to the innermost frame");
+        }
+        if (top == atoms.length) {
+            atoms = Arrays.copyOf(atoms, top * 2);
+        }
+        atoms[top++] = atom;
+        frame.size++;
+    }
+
+    void release(ArgumentFrame frame) {
+        if (frame.index < depth) {
+            // drop the references, so released arguments may be collected
+            Arrays.fill(atoms, frame.offset, top, null);
+            top = frame.offset;
+            depth = frame.index;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compiles atoms to trees of {@link CompiledExpression}s.
+ * <p>Every command contributes the compiled form of its atoms (see
+ * {@link Command#compile(Atom, CompiledExpression[])}) with the compiled parameters bound to it, so
+ * evaluating a compiled expression neither inspects atom types nor looks up commands. The compiled
+ * forms follow the steps of the interpreter ({@link Atom#execute(CoachContext)}) and yield the same
+ * results. Expressions nested deeper than {@link #MAX_DEPTH} are left to the interpreter, which does
+ * not recurse.</p>
+ */
+public final class AstCompiler {
+
+    /* depth from which on expressions are interpreted */
+    static final int MAX_DEPTH = 64;
+
+    private AstCompiler() {}
+
+    /***
+     * <p>Compiles an atom.</p>
+     *
+     * @param atom the atom to compile
+     * @return the compiled expression
+     */
+    public static CompiledExpression compile(Atom atom) {
+        return compile(atom, 0);
+    }
+
+    private static CompiledExpression compile(Atom atom, int depth) {
+        if (atom.getType() != Atom.AtomType.METHODE) {
+            return coachContext -> atom;
+        }
+        Command command = atom.getCommand();
+        if (command == null || depth >= MAX_DEPTH) {
+            // unknown commands are reported by the interpreter when the atom is executed
+            return atom::execute;
+        }
+        List<Atom> atoms = parameters(atom);
+        CompiledExpression[] parameters = new CompiledExpression[atoms.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = compile(atoms.get(i), depth + 1);
+        }
+        return command.compile(atom, parameters);
+    }
+
+    /***
+     * <p>Builds the compiled form of a pure command whose parameters are all normalized.</p>
+     *
+     * <p>As pure commands do not depend on the executor context, the parameters are evaluated and
+     * passed to {@link Command#execute(List, CoachContext)} directly, or to
+     * {@link Command#executeChecked(List, CoachContext)} if the call has been checked.</p>
+     */
+    static CompiledExpression pure(Command command, CompiledExpression[] parameters, boolean checked) {
+        if (command.isShortCircuit()) {
+            return coachContext -> {
+                ArgumentFrame arguments = ArgumentStack.get().open();
+                try {
+                    for (CompiledExpression parameter : parameters) {
+                        arguments.push(parameter.evaluate(coachContext));
+                        Atom result = command.getShortCircuitResult(arguments, coachContext);
+                        if (result != null) {
+                            return result;
+                        }
+                    }
+                    return checked
+                            ? command.executeChecked(arguments, coachContext)
+                            : command.execute(arguments, coachContext);
+                } finally {
+                    arguments.release();
+                }
+            };
+        }
+        return coachContext -> {
+            ArgumentFrame arguments = ArgumentStack.get().open();
+            try {
+                for (CompiledExpression parameter : parameters) {
+                    arguments.push(parameter.evaluate(coachContext));
+                }
+                return checked
+                        ? command.executeChecked(arguments, coachContext)
+                        : command.execute(arguments, coachContext);
+            } finally {
+                arguments.release();
+            }
+        };
+    }
+
+    /***
+     * <p>Builds the compiled form of an arbitrary command, taking the same steps as the interpreter.</p>
+     */
+    static CompiledExpression generic(Command command, Atom atom, CompiledExpression[] parameters) {
+        List<Atom> atoms = parameters(atom);
+        boolean[] eager = new boolean[parameters.length];
+        for (int i = 0; i < eager.length; i++) {
+            eager[i] = atoms.get(i).getType() == Atom.AtomType.METHODE && command.isEagerParameter(i);
+        }
+        boolean shortCircuit = command.isShortCircuit();
+        boolean checked = atom.isTypeChecked();
+        return coachContext -> {
+            ExecutorContext context = atom.getExecutorContext(coachContext);
+            ArgumentFrame arguments = ArgumentStack.get().open();
+            Atom tail;
+            try {
+                for (int i = 0; i < parameters.length; i++) {
+                    arguments.push(eager[i] ? parameters[i].evaluate(coachContext) : atoms.get(i));
+                    if (shortCircuit) {
+                        Atom result = command.getShortCircuitResult(arguments, coachContext);
+                        if (result != null) {
+                            return result;
+                        }
+                    }
+                }
+                tail = command.getTailParameter(arguments, coachContext);
+                if (tail == null) {
+                    return command.execute(arguments, coachContext, context, checked);
+                }
+            } finally {
+                arguments.release();
+            }
+            if (tail.getType() == Atom.AtomType.METHODE) {
+                CoachContext cc = coachContext;
+                if (cc.getContext() != context) {
+                    cc = cc.copy();
+                    cc.setContext(context);
+                }
+                return falseIfNull(tail.execute(cc));
+            }
+            return tail;
+        };
+    }
+
+    /* commands evaluating to one of their parameters report a missing result as FALSE */
+    static Atom falseIfNull(Atom atom) {
+        return atom != null ? atom : Atom.FALSE;
+    }
+
+    private static List<Atom> parameters(Atom atom) {
+        return atom.getParameters() != null ? atom.getParameters() : Collections.emptyList();
+    }
+}
@@ -0,0 +1,187 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Vector;
+import java.util.logging.Logger;
+
+/**
+ * Evaluates the constant parts of parsed logic ahead of time.
+ * <p>Pure commands (see {@link Command#isPure()}) whose parameters are literals are replaced by their
+ * result, so <code>if</code> is only folded if its condition and branches are literals. Short circuit
+ * commands (such as <code>and</code>) decided by leading literals are replaced by their result. Lines
+ * whose condition folds to FALSE are dropped, conditions folding to TRUE are replaced by the literal.
+ * Expressions failing to evaluate are kept, so that the error is reported when the logic is executed.
+ * Commands evaluated in a parent context are never folded.</p>
+ */
+public final class AstOptimizer {
+
+    private final CoachContext foldContext;
+
+    /***
+     * <p>Creates an optimizer.</p>
+     *
+     * <p>As pure commands do not depend on the coach, the optimizer may be shared by all coaches.</p>
+     */
+    public AstOptimizer() {
+        foldContext = new CoachContext(null, null, null, Optional.empty(), null, null);
+        foldContext.setLogger(Logger.getLogger(AstOptimizer.class.getName()));
+    }
+
+    /***
+     * <p>Optimizes a listing.</p>
+     *
+     * <p>The listing passed is not modified; lines which cannot be optimized are reused.</p>
+     *
+     * @param listing the lines as returned by {@link ParserLine#getCySeCListing()}
+     * @return the optimized lines
+     */
+    public List<CySeCLineAtom> optimize(List<CySeCLineAtom> listing) {
+        List<CySeCLineAtom> ret = new ArrayList<>(listing.size());
+        for (CySeCLineAtom line : listing) {
+            Atom cond = fold(line.cond);
+            if (cond.getType() == Atom.AtomType.BOOL && cond.hasPrimitiveValue() && !cond.getBooleanValue()) {
+                // the line is never executed
+                continue;
+            }
+            boolean changed = cond != line.cond;
+            Atom[] statements = new Atom[line.statements.length];
+            for (int i = 0; i < statements.length; i++) {
+                statements[i] = fold(line.statements[i]);
+                changed |= statements[i] != line.statements[i];
+            }
+            ret.add(changed ? new CySeCLineAtom(cond, line.name, statements) : line);
+        }
+        return ret;
+    }
+
+    /***
+     * <p>Folds the constant parts of an expression.</p>
+     *
+     * @param root the expression to fold
+     * @return the folded expression, or the expression itself if nothing could be folded
+     */
+    public Atom fold(Atom root) {
+        if (root.getType() != Atom.AtomType.METHODE) {
+            return root;
+        }
+        // post-order traversal with an explicit stack, as expressions may be nested arbitrarily deep
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = new Node(root);
+        while (true) {
+            int index = node.folded.size();
+            if (index < node.parameters.size()) {
+                Atom parameter = node.parameters.get(index);
+                if (parameter.getType() == Atom.AtomType.METHODE) {
+                    stack.push(node);
+                    node = new Node(parameter);
+                } else {
+                    node.folded.add(parameter);
+                }
+                continue;
+            }
+
+            Atom result = foldNode(node);
+            node = stack.poll();
+            if (node == null) {
+                return result;
+            }
+            node.folded.add(result);
+        }
+    }
+
+    private Atom foldNode(Node node) {
+        Atom atom = node.atom;
+        Atom rebuilt = atom;
+        int literals = 0;
+        boolean changed = false;
+        for (int i = 0; i < node.folded.size(); i++) {
+            Atom parameter = node.folded.get(i);
+            changed |= parameter != node.parameters.get(i);
+            if (literals == i && parameter.getType() != Atom.AtomType.METHODE) {
+                literals++;
+            }
+        }
+        if (changed) {
+            rebuilt = new Atom(Atom.AtomType.METHODE, atom.getId(), node.folded, atom.getParentPointer());
+            rebuilt.setPosition(atom.getSource(), atom.getStart(), atom.getEnd());
+            rebuilt.setTypeChecked(atom.isTypeChecked());
+        }
+
+        Command command = atom.getCommand();
+        if (command == null || !command.isPure() || atom.getParentPointer() != 0) {
+            return rebuilt;
+        }
+        try {
+            if (literals == node.folded.size()) {
+                Atom value = rebuilt.execute(foldContext);
+                if (value != null && value.getType() != Atom.AtomType.METHODE) {
+                    return positioned(value, atom);
+                }
+            } else if (command.isShortCircuit() && literals > 0) {
+                // a constant prefix may decide the command, the remaining parameters are never evaluated then
+                for (int i = 1; i <= literals; i++) {
+                    Atom value = command.getShortCircuitResult(rebuilt.getParameters().subList(0, i), foldContext);
+                    if (value != null) {
+                        return positioned(value, atom);
+                    }
+                }
+            }
+        } catch (ExecutorException | RuntimeException e) {
+            // keep the expression, its evaluation reports the problem at runtime
+        }
+        return rebuilt;
+    }
+
+    /* returns a literal carrying the position of the folded expression unless it already has one */
+    private static Atom positioned(Atom value, Atom origin) {
+        if (value.getSource() != null || value.getType() == Atom.AtomType.NULL) {
+            return value;
+        }
+        Atom literal;
+        if (value.getType() == Atom.AtomType.INTEGER && value.hasPrimitiveValue()) {
+            literal = Atom.ofInteger(value.getLongValue());
+        } else if (value.getType() == Atom.AtomType.FLOAT && value.hasPrimitiveValue()) {
+            literal = Atom.ofFloat(value.getDoubleValue());
+        } else {
+            literal = new Atom(value.getType(), StringPool.intern(value.getId()), null);
+        }
+        literal.setPosition(origin.getSource(), origin.getStart(), origin.getEnd());
+        return literal;
+    }
+
+    /* a command whose parameters are being folded */
+    private static final class Node {
+        private final Atom atom;
+        private final List<Atom> parameters;
+        private final List<Atom> folded;
+
+        private Node(Atom atom) {
+            this.atom = atom;
+            this.parameters = atom.getParameters() != null ? atom.getParameters() : new Vector<>();
+            this.folded = new Vector<>(parameters.size());
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * Binary serialization of parsed CSL programs.
+ * <p>The format starts with a magic number and a format version. Readers reject any other
+ * version, so {@link #FORMAT_VERSION} has to be increased whenever the encoding or the structure of
+ * the atoms changes. Atoms are written in pre-order without recursion, so arbitrarily deep
+ * expressions can be stored and restored. The source positions of the atoms are stored as well
+ * and are attached to the source again when reading.</p>
+ */
+public final class AstSerializer {
+
+    /* "CSLA" */
+    private static final int MAGIC = 0x43534C41;
+
+    /** version of the binary format */
+    public static final int FORMAT_VERSION = 3;
+
+    private static final Atom.AtomType[] TYPES = Atom.AtomType.values();
+
+    /* upper bound for lengths and counts, protects against allocating huge arrays for corrupt input */
+    private static final int MAX_COUNT = 1 << 24;
+
+    /* length written for null strings (such as unnamed lines or string atoms without a value) */
+    private static final int NULL_LENGTH = -1;
+
+    private AstSerializer() {}
+
+    /***
+     * <p>Writes a program including the format header.</p>
+     *
+     * @param program the lines of the program
+     * @param out     the stream to write to
+     * @throws IOException if writing fails
+     */
+    public static void write(List<CySeCLineAtom> program, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(program.size());
+        for (CySeCLineAtom line : program) {
+            writeString(line.name, out);
+            writeAtom(line.cond, out);
+            out.writeInt(line.statements.length);
+            for (Atom statement : line.statements) {
+                writeAtom(statement, out);
+            }
+        }
+    }
+
+    /***
+     * <p>Reads a program written by {@link #write(List, DataOutputStream)} without source positions.</p>
+     *
+     * @param in the stream to read from
+     * @return the lines of the program
+     * @throws IOException if the stream is not readable, has a different format version or refers to
+     *                     unknown commands
+     */
+    public static List<CySeCLineAtom> read(DataInputStream in) throws IOException {
+        return read(in, null);
+    }
+
+    /***
+     * <p>Reads a program written by {@link #write(List, DataOutputStream)}.</p>
+     *
+     * @param in     the stream to read from
+     * @param source the source the program has been parsed from, or null to drop the source positions
+     * @return the lines of the program
+     * @throws IOException if the stream is not readable, has a different format version or refers to
+     *                     unknown commands
+     */
+    public static List<CySeCLineAtom> read(DataInputStream in, SourceText source) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a serialized CSL program");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("unsupported format version " + version + " (expected " + FORMAT_VERSION + ")");
+        }
+        int lines = readCount(in);
+        List<CySeCLineAtom> program = new Vector<>(lines);
+        for (int i = 0; i < lines; i++) {
+            String name = readString(in);
+            Atom cond = readAtom(in, source);
+            Atom[] statements = new Atom[readCount(in)];
+            for (int j = 0; j < statements.length; j++) {
+                statements[j] = readAtom(in, source);
+            }
+            program.add(new CySeCLineAtom(cond, name, statements));
+        }
+        return program;
+    }
+
+    private static void writeAtom(Atom root, DataOutputStream out) throws IOException {
+        Deque<Atom> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Atom a = stack.pop();
+            out.writeByte(a.getType().ordinal());
+            out.writeInt(a.getStart());
+            out.writeInt(a.getEnd());
+            switch (a.getType()) {
+                case METHODE:
+                    List<Atom> parameters = a.getParameters();
+                    writeString(a.getId(), out);
+                    out.writeInt(a.getParentPointer());
+                    out.writeInt(parameters.size());
+                    // push in reverse order to emit the parameters from left to right
+                    for (int i = parameters.size() - 1; i >= 0; i--) {
+                        stack.push(parameters.get(i));
+                    }
+                    break;
+                case INTEGER:
+                    out.writeLong(a.getLongValue());
+                    break;
+                case FLOAT:
+                    out.writeDouble(a.getDoubleValue());
+                    break;
+                case BOOL:
+                    out.writeBoolean(a.getBooleanValue());
+                    break;
+                case STRING:
+                    writeString(a.peekId(), out);
+                    break;
+                case NULL:
+                    break;
+                default:
+                    throw new IOException("type " + a.getType() + " cannot be serialized");
+            }
+        }
+    }
+
+    private static Atom readAtom(DataInputStream in, SourceText source) throws IOException {
+        // parameter lists still waiting for atoms
+        Deque<OpenList> open = new ArrayDeque<>();
+        Atom root = null;
+        do {
+            int type = in.readUnsignedByte();
+            if (type >= TYPES.length) {
+                throw new IOException("illegal atom type " + type);
+            }
+            int start = in.readInt();
+            int end = in.readInt();
+            Atom a;
+            OpenList children = null;
+            switch (TYPES[type]) {
+                case METHODE:
+                    String id = readString(in);
+                    if (!Atom.validateCommand(id)) {
+                        throw new IOException("unknown command \"" + id + "\"");
+                    }
+                    int parentPointer = in.readInt();
+                    int count = readCount(in);
+                    List<Atom> parameters = new Vector<>(count);
+                    a = new Atom(Atom.AtomType.METHODE, id, parameters, parentPointer);
+                    if (count > 0) {
+                        children = new OpenList(parameters, count);
+                    }
+                    break;
+                case INTEGER:
+                    a = Atom.ofInteger(in.readLong());
+                    break;
+                case FLOAT:
+                    a = Atom.ofFloat(in.readDouble());
+                    break;
+                case BOOL:
+                    a = new Atom(Atom.AtomType.BOOL, in.readBoolean() ? "TRUE" : "FALSE", null);
+                    break;
+                case STRING:
+                    a = new Atom(Atom.AtomType.STRING, readString(in), null);
+                    break;
+                default:
+                    a = Atom.NULL_ATOM;
+                    break;
+            }
+            if (source != null
+                    && a != Atom.NULL_ATOM
+                    && start >= 0
+                    && start <= end
+                    && end <= source.getText().length()) {
+                a.setPosition(source, start, end);
+            }
+
+            // attach the atom to the innermost open parameter list
+            if (open.isEmpty()) {
+                root = a;
+            } else {
+                OpenList parent = open.peek();
+                parent.parameters.add(a);
+                if (--parent.missing == 0) {
+                    open.pop();
+                }
+            }
+            if (children != null) {
+                open.push(children);
+            }
+        } while (!open.isEmpty());
+        return root;
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        return checkCount(in.readInt());
+    }
+
+    private static int checkCount(int count) throws IOException {
+        if (count < 0 || count > MAX_COUNT) {
+            throw new IOException("illegal element count " + count);
+        }
+        return count;
+    }
+
+    private static void writeString(String s, DataOutputStream out) throws IOException {
+        if (s == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[checkCount(length)];
+        in.readFully(bytes);
+        return StringPool.intern(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private static final class OpenList {
+        private final List<Atom> parameters;
+        private int missing;
+
+        private OpenList(List<Atom> parameters, int missing) {
+            this.parameters = parameters;
+            this.missing = missing;
+        }
+    }
+}
@@ -19,6 +19,8 @@
  */
 package eu.smesec.cysec.csl.parser;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Vector;
 
@@ -42,10 +44,162 @@ public class Atom {
     private List<Atom> parameters = new Vector<>();
     private int parentPointer = 0;
 
+    /* command of a METHODE atom, bound once when the atom is built */
+    private Command command = null;
+
+    /* primitive payload of literal atoms (the id of numbers is derived from it on demand) */
+    private long longValue = 0;
+    private double doubleValue = 0;
+    private boolean booleanValue = false;
+    /* set if the primitive payload is valid (INTEGER, FLOAT and BOOL atoms with a well-formed id) */
+    private boolean primitive = false;
+
+    /* position of the atom in the source it was parsed from (if any) */
+    private SourceText source = null;
+    private int start = -1;
+    private int end = -1;
+    /* set if the id of a string is the text between the quotes at the position and not yet materialized */
+    private boolean sliced = false;
+    /* set on METHODE atoms whose call has been proven to match the signature of the command */
+    private boolean typeChecked = false;
+
     public Atom(AtomType type, String id, List<Atom> parameters) {
         this.type = type;
         this.id = id;
         this.parameters = parameters;
+        if (type == AtomType.METHODE) {
+            this.command = Command.getCommand(id);
+        }
+        try {
+            if (type == AtomType.INTEGER && id != null) {
+                longValue = Long.parseLong(id);
+                doubleValue = longValue;
+                primitive = true;
+            } else if (type == AtomType.FLOAT && id != null) {
+                doubleValue = Double.parseDouble(id);
+                longValue = (long) doubleValue;
+                primitive = true;
+            } else if (type == AtomType.BOOL) {
+                booleanValue = "TRUE".equals(id);
+                primitive = booleanValue || "FALSE".equals(id);
+            }
+        } catch (NumberFormatException nfe) {
+            // keep the textual id only; consumers parsing the id will report the problem
+        }
+    }
+
+    private Atom(AtomType type, long longValue, double doubleValue) {
+        this.type = type;
+        this.parameters = null;
+        this.longValue = longValue;
+        this.doubleValue = doubleValue;
+        this.primitive = true;
+    }
+
+    /***
+     * <p>Creates an integer atom from its value without a textual round trip.</p>
+     *
+     * @param value the value of the integer
+     * @return the newly created atom
+     */
+    public static Atom ofInteger(long value) {
+        return new Atom(AtomType.INTEGER, value, value);
+    }
+
+    /***
+     * <p>Creates a float atom from its value without a textual round trip.</p>
+     *
+     * @param value the value of the float
+     * @return the newly created atom
+     */
+    public static Atom ofFloat(double value) {
+        return new Atom(AtomType.FLOAT, (long) value, value);
+    }
+
+    /***
+     * <p>Returns the boolean atom of a value.</p>
+     *
+     * @param value the value
+     * @return {@link #TRUE} or {@link #FALSE}
+     */
+    public static Atom ofBoolean(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    /***
+     * <p>Creates a string atom.</p>
+     *
+     * @param value the value of the string
+     * @return the newly created atom
+     */
+    public static Atom ofString(String value) {
+        return new Atom(AtomType.STRING, value, null);
+    }
+
+    /***
+     * <p>Creates a string atom for a quoted literal without escape sequences.</p>
+     *
+     * <p>The value is copied from the source when it is requested for the first time.</p>
+     *
+     * @param source the source containing the literal
+     * @param start  the offset of the opening quote
+     * @param end    the offset after the closing quote
+     * @return the newly created atom
+     */
+    static Atom ofSourceString(SourceText source, int start, int end) {
+        Atom atom = new Atom(AtomType.STRING, null, null);
+        atom.setPosition(source, start, end);
+        atom.sliced = true;
+        return atom;
+    }
+
+    /***
+     * <p>Records where the atom has been found in the source.</p>
+     *
+     * @param source the source the atom has been parsed from
+     * @param start  the offset of the first character of the atom
+     * @param end    the offset after the last character of the atom
+     */
+    void setPosition(SourceText source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    /***
+     * <p>Returns the source the atom has been parsed from.</p>
+     *
+     * @return the source, or null if the atom has not been parsed
+     */
+    public SourceText getSource() {
+        return source;
+    }
+
+    /***
+     * <p>Returns the offset of the first character of the atom in its source.</p>
+     *
+     * @return the offset, or -1 if the atom has not been parsed
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /***
+     * <p>Returns the offset after the last character of the atom in its source.</p>
+     *
+     * @return the offset, or -1 if the atom has not been parsed
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /***
+     * <p>Returns the location of the atom in its source for diagnostics.</p>
+     *
+     * @return the location as "line L, column C", or null if the atom has not been parsed
+     */
+    public String getLocation() {
+        return source != null ? source.getLocation(start) : null;
     }
 
     public Atom(AtomType type, String id, List<Atom> parameters, int parent) {
@@ -53,9 +207,22 @@ public class Atom {
         this.parentPointer = parent;
     }
 
-    private ExecutorContext getExecutorContext(CoachContext cc) {
-        int i = parentPointer;
+    /***
+     * <p>Resolves the context a command is executed in, following the parent pointer of the atom.</p>
+     *
+     * <p>The context is resolved on every execution and not when the command is bound: the same logic runs
+     * for the contexts of all instances of a coach, and the parent of a context is set when a subcoach is
+     * created (see {@link CommandCreateSubcoach}). Atoms without a parent pointer do not walk the chain.</p>
+     *
+     * @param cc the context of the run
+     * @return the executor context of the run, or the ancestor the parent pointer refers to
+     */
+    ExecutorContext getExecutorContext(CoachContext cc) {
         ExecutorContext context = cc.getContext();
+        if (parentPointer == 0) {
+            return context;
+        }
+        int i = parentPointer;
         while (i != 0 && context.getParent() != null) {
             context = context.getParent();
             i--;
@@ -64,36 +231,8 @@ public class Atom {
     }
 
     public Atom execute(CoachContext coachContext) throws ExecutorException {
-        return execute(coachContext, getExecutorContext(coachContext));
-    }
-
-    private Atom execute(CoachContext coachContext, ExecutorContext context) throws ExecutorException {
-        if (type == AtomType.METHODE) {
-            // execute here
-            Command command = Command.getCommand(id);
-            if (command != null) {
-
-                // normalize parameter list as far as we can
-                List<Atom> pl = new Vector<>();
-                int i = 0;
-                for (Atom a : parameters) {
-                    i++;
-                    if (a.getType() == AtomType.METHODE
-                            && (i <= command.getNumberOfNormalizedParams()
-                                    || command.getNumberOfNormalizedParams() == -1)) {
-                        a = a.execute(coachContext);
-                    }
-                    pl.add(a);
-                }
-
-                // execute command
-                return command.execute(pl, coachContext, getExecutorContext(coachContext));
-            } else {
-                throw new ExecutorException("Found unknown methode \"" + id + "\"");
-            }
-        } else {
-            return this;
-        }
+        // nested commands are evaluated without recursion
+        return Evaluator.evaluate(this, coachContext);
     }
 
     public static boolean validateCommand(String name) {
@@ -110,40 +249,144 @@ public class Atom {
         return type;
     }
 
+    public List<Atom> getParameters() {
+        return parameters;
+    }
+
+    int getParentPointer() {
+        return parentPointer;
+    }
+
+    /***
+     * <p>Returns the command bound to a METHODE atom.</p>
+     *
+     * @return the command, or null if the atom is no METHODE or the command is unknown
+     */
+    public Command getCommand() {
+        return command;
+    }
+
+    /***
+     * <p>Tells whether the call of this atom has been proven to match the signature of its command.</p>
+     *
+     * @return true if the call may be executed without runtime checks (see {@link TypeChecker})
+     */
+    public boolean isTypeChecked() {
+        return typeChecked;
+    }
+
+    void setTypeChecked(boolean typeChecked) {
+        this.typeChecked = typeChecked;
+    }
+
     public String getId() {
+        if (id == null) {
+            // materialize the textual representation of literals on first use
+            if (sliced) {
+                id = StringPool.intern(source.substring(start + 1, end - 1));
+            } else if (type == AtomType.INTEGER) {
+                id = Long.toString(longValue);
+            } else if (type == AtomType.FLOAT) {
+                id = Double.toString(doubleValue);
+            }
+        }
         return id;
     }
 
+    /***
+     * <p>Returns the id without keeping a materialized literal in the atom.</p>
+     *
+     * @return the id of the atom
+     */
+    String peekId() {
+        return id == null && sliced ? source.substring(start + 1, end - 1) : getId();
+    }
+
+    /***
+     * <p>Tells whether the atom carries a primitive value.</p>
+     *
+     * <p>This is the case for all INTEGER, FLOAT and BOOL atoms unless they have been built from an
+     * id that is not a valid literal of their type.</p>
+     *
+     * @return true if {@link #getLongValue()}, {@link #getDoubleValue()} or {@link #getBooleanValue()}
+     *     reflect the value of the atom
+     */
+    public boolean hasPrimitiveValue() {
+        return primitive;
+    }
+
+    /***
+     * <p>Gets the value of a boolean atom.</p>
+     *
+     * @return the value of the atom
+     */
+    public boolean getBooleanValue() {
+        return booleanValue;
+    }
+
+    /***
+     * <p>Gets the value of a numerical atom as long (floats are truncated).</p>
+     *
+     * @return the value of the atom
+     */
+    public long getLongValue() {
+        return longValue;
+    }
+
+    /***
+     * <p>Gets the value of a numerical atom as double.</p>
+     *
+     * @return the value of the atom
+     */
+    public double getDoubleValue() {
+        return doubleValue;
+    }
+
     public String toString() {
-        String ret = "";
-        switch (type) {
-            case METHODE:
-                ret += id + "( ";
-                for (Atom a : parameters) {
-                    ret += a.toString() + ", ";
-                }
-                if (parameters.size() >= 1) {
-                    ret = ret.substring(0, ret.length() - 2) + " )";
-                } else {
-                    // in case of no atoms
-                    ret = ret.substring(0, ret.length() - 1) + ")";
-                }
-                break;
-            case STRING:
-                ret += "\"" + id + "\"";
-                break;
-            case NULL:
-                ret = "NULL";
-                break;
-            case INTEGER:
-            case FLOAT:
-            case BOOL:
-                ret += id;
-                break;
-            default:
-                throw new NullPointerException("type " + type + " cannot be printed (Not implemented)");
+        // print without recursion, the work list holds atoms and pending separators
+        StringBuilder ret = new StringBuilder();
+        Deque<Object> todo = new ArrayDeque<>();
+        todo.push(this);
+        while (!todo.isEmpty()) {
+            Object o = todo.pop();
+            if (o instanceof String) {
+                ret.append((String) o);
+                continue;
+            }
+            Atom a = (Atom) o;
+            switch (a.type) {
+                case METHODE:
+                    ret.append(a.id);
+                    if (a.parameters.isEmpty()) {
+                        // in case of no atoms
+                        ret.append("()");
+                        break;
+                    }
+                    ret.append("( ");
+                    todo.push(" )");
+                    for (int i = a.parameters.size() - 1; i >= 0; i--) {
+                        todo.push(a.parameters.get(i));
+                        if (i > 0) {
+                            todo.push(", ");
+                        }
+                    }
+                    break;
+                case STRING:
+                    ret.append('"').append(a.getId()).append('"');
+                    break;
+                case NULL:
+                    ret.append("NULL");
+                    break;
+                case INTEGER:
+                case FLOAT:
+                case BOOL:
+                    ret.append(a.getId());
+                    break;
+                default:
+                    throw new NullPointerException("type " + a.type + " cannot be printed (Not implemented)");
+            }
         }
-        return ret;
+        return ret.toString();
     }
 
     public boolean isTrue(CoachContext coachContext) throws ExecutorException {
@@ -155,10 +398,8 @@ public class Atom {
             throw new ExecutorException(
                     "condition \"" + this.toString() + "\" does not evaluate to BOOL (is:" + eval + ")");
         }
-        if ("TRUE".equals(eval.getId())) {
-            return true;
-        } else if ("FALSE".equals(eval.getId())) {
-            return false;
+        if (eval.primitive) {
+            return eval.booleanValue;
         } else {
             throw new ExecutorException(
                     "boolean value is illegal \"" + eval.toString() + "\" (OUCH! How did that happen)");
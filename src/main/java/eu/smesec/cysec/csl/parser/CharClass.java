@@ -0,0 +1,127 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+/**
+ * <p>An immutable set of characters within the range 0..255 backed by a bitmask.</p>
+ *
+ * <p>Membership tests are a shift and a mask, so the scanner may query a class once per
+ * character without searching a character list.</p>
+ */
+public final class CharClass {
+
+    /* the four words cover the character codes 0..255 */
+    private final long[] bits;
+
+    private CharClass(long[] bits) {
+        this.bits = bits;
+    }
+
+    /***
+     * <p>Builds a class containing the characters ranging from the code start until the code end.</p>
+     *
+     * @param start The first character code to be included
+     * @param end   The last character code to be included
+     * @return the generated class
+     * @throws IllegalArgumentException if the range is not within 0..255 or start is larger than end
+     */
+    public static CharClass range(int start, int end) {
+        if (start < 0 || end > 255 || end < start) {
+            throw new IllegalArgumentException("illegal character range " + start + ".." + end);
+        }
+        long[] b = new long[4];
+        for (int i = start; i <= end; i++) {
+            b[i >> 6] |= 1L << i;
+        }
+        return new CharClass(b);
+    }
+
+    /***
+     * <p>Builds a class containing all given characters.</p>
+     *
+     * <p>Characters outside 0..255 are ignored.</p>
+     *
+     * @param chars the characters to be included
+     * @return the generated class
+     */
+    public static CharClass of(String chars) {
+        long[] b = new long[4];
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < 256) {
+                b[c >> 6] |= 1L << c;
+            }
+        }
+        return new CharClass(b);
+    }
+
+    /***
+     * <p>Returns the union of this class and the given class.</p>
+     *
+     * @param other the class to be added
+     * @return a new class containing the characters of both classes
+     */
+    public CharClass union(CharClass other) {
+        long[] b = new long[4];
+        for (int i = 0; i < 4; i++) {
+            b[i] = bits[i] | other.bits[i];
+        }
+        return new CharClass(b);
+    }
+
+    /***
+     * <p>Removes a given set of characters from this class.</p>
+     *
+     * @param other the class of characters to be removed
+     * @return a new class containing the difference of the two classes
+     */
+    public CharClass minus(CharClass other) {
+        long[] b = new long[4];
+        for (int i = 0; i < 4; i++) {
+            b[i] = bits[i] & ~other.bits[i];
+        }
+        return new CharClass(b);
+    }
+
+    /***
+     * <p>Returns true if the character is a member of this class.</p>
+     *
+     * @param c the character to be tested
+     * @return true if the character is contained
+     */
+    public boolean contains(char c) {
+        return c < 256 && (bits[c >> 6] & (1L << c)) != 0;
+    }
+
+    /***
+     * <p>Returns the members of this class as character list in ascending order.</p>
+     *
+     * @return the character list
+     */
+    public String toCharlist() {
+        StringBuilder ret = new StringBuilder();
+        for (int i = 0; i < 256; i++) {
+            if (contains((char) i)) {
+                ret.append((char) i);
+            }
+        }
+        return ret.toString();
+    }
+}
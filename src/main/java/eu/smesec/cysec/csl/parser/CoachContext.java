@@ -19,6 +19,7 @@
  */
 package eu.smesec.cysec.csl.parser;
 
+import eu.smesec.cysec.csl.utils.QuestionIndex;
 import eu.smesec.cysec.platform.bridge.FQCN;
 import eu.smesec.cysec.platform.bridge.ILibCal;
 import eu.smesec.cysec.platform.bridge.generated.Answer;
@@ -38,6 +39,9 @@ public class CoachContext {
     private Questionnaire coach;
     private Logger logger;
     private FQCN fqcn;
+    private AnswerSnapshot answers;
+    private QuestionIndex questionIndex;
+    private String scoreQuestionId;
 
     public CoachContext(
             ExecutorContext context,
@@ -52,6 +56,21 @@ public class CoachContext {
         this.answerContext = answerContext;
         this.coach = coach;
         this.fqcn = fqcn;
+        this.answers = new AnswerSnapshot(cal, fqcn);
+    }
+
+    /* copies a context, sharing its answer snapshot and question index */
+    private CoachContext(CoachContext original) {
+        this.context = original.context;
+        this.cal = original.cal;
+        this.questionContext = original.questionContext;
+        this.answerContext = original.answerContext;
+        this.coach = original.coach;
+        this.fqcn = original.fqcn;
+        this.logger = original.logger;
+        this.answers = original.answers;
+        this.questionIndex = original.questionIndex;
+        this.scoreQuestionId = original.scoreQuestionId;
     }
 
     public FQCN getFqcn() {
@@ -90,9 +109,61 @@ public class CoachContext {
         return coach;
     }
 
+    /**
+     * Returns the id under which the question of this context contributes to scores.
+     *
+     * <p>All instances of a subcoach share its executor context, so the question id is qualified with the subcoach
+     * instance to keep the contributions of the instances apart (e.g. when an instance reverts its question).</p>
+     *
+     * @return the question id, qualified with the subcoach instance for subcoaches
+     */
+    public String getScoreQuestionId() {
+        if (scoreQuestionId == null) {
+            String questionId = questionContext.getId();
+            scoreQuestionId = questionId == null || fqcn == null || fqcn.isTopLevel()
+                    ? questionId
+                    : fqcn.getCoachId() + "." + fqcn.getName() + "." + questionId;
+        }
+        return scoreQuestionId;
+    }
+
+    /**
+     * Returns the answers read by the commands, shared by all copies of this context.
+     *
+     * @return the answer snapshot of the run
+     */
+    public AnswerSnapshot getAnswers() {
+        return answers;
+    }
+
+    /**
+     * Returns the index of the questions of the coach, shared by all copies of this context.
+     *
+     * @return the question index
+     */
+    public QuestionIndex getQuestionIndex() {
+        if (questionIndex == null) {
+            questionIndex = QuestionIndex.of(coach);
+        }
+        return questionIndex;
+    }
+
+    /**
+     * Finds a question of the coach.
+     *
+     * @param questionId the id of the question
+     * @return the question
+     * @throws ExecutorException if the coach has no question with this id
+     */
+    public Question getQuestion(String questionId) throws ExecutorException {
+        Question question = getQuestionIndex().get(questionId);
+        if (question == null) {
+            throw new ExecutorException("Question id " + questionId + " doesn't exist");
+        }
+        return question;
+    }
+
     public CoachContext copy() {
-        CoachContext coachContext = new CoachContext(context, cal, questionContext, answerContext, coach, fqcn);
-        coachContext.setLogger(logger);
-        return coachContext;
+        return new CoachContext(this);
     }
 }
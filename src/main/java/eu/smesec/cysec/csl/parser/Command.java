@@ -20,6 +20,7 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.parser.Atom.AtomType;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -104,10 +105,175 @@ public abstract class Command {
         return numberOfNormalizedParams;
     }
 
+    /***
+     * <p>Tells whether a parameter is evaluated before the command is called.</p>
+     *
+     * <p>Eager parameters are normalized by the evaluator; lazy parameters are passed as they are, and the
+     * command evaluates them if needed (such as the branches of <code>if</code>). By default the first
+     * {@link #getNumberOfNormalizedParams()} parameters are eager.</p>
+     *
+     * @param index the index of the parameter
+     * @return true if the parameter is evaluated eagerly
+     */
+    public boolean isEagerParameter(int index) {
+        return numberOfNormalizedParams == -1 || index < numberOfNormalizedParams;
+    }
+
+    /* set by commands whose result may be decided by a part of their parameters (see getShortCircuitResult()) */
+    protected boolean shortCircuit = false;
+
+    /***
+     * <p>Tells whether the command may be decided before all its parameters are evaluated.</p>
+     *
+     * @return true if {@link #getShortCircuitResult(List, CoachContext)} is to be consulted
+     */
+    public boolean isShortCircuit() {
+        return shortCircuit;
+    }
+
+    /***
+     * <p>Decides the result of the command from the parameters evaluated so far, if possible.</p>
+     *
+     * <p>Parameters are evaluated in order. For short circuit commands (see {@link #isShortCircuit()}), this
+     * method is called each time a parameter has been evaluated. If it returns a result, the remaining
+     * parameters are neither evaluated nor is the command executed. A parameter which is not valid has to be
+     * reported as soon as it has been evaluated, as the command may never be executed.</p>
+     *
+     * @param evaluated    the parameters evaluated so far (at least one), only valid during the call
+     * @param coachContext the context of the evaluation
+     * @return the result of the command, or null if the remaining parameters are required
+     * @throws ExecutorException if the last parameter is not valid
+     */
+    public Atom getShortCircuitResult(List<Atom> evaluated, CoachContext coachContext) throws ExecutorException {
+        return null;
+    }
+
+    /* set by commands without side effects (see isPure()) */
+    protected boolean pure = false;
+
+    /***
+     * <p>Tells whether the command is free of side effects.</p>
+     *
+     * <p>The result of a pure command only depends on its parameters and is never null. Pure commands over
+     * constant parameters are therefore evaluated once when the logic is loaded (see {@link AstOptimizer}).
+     * Commands reading or changing answers, variables, scores, the questionnaire or any other state of a coach
+     * must not be pure.</p>
+     *
+     * @return true if the command may be evaluated ahead of time
+     */
+    public boolean isPure() {
+        return pure;
+    }
+
+    /* set by commands declaring their parameters and result (see getSignature()) */
+    protected Signature signature = null;
+
+    /***
+     * <p>Returns the signature of the command.</p>
+     *
+     * <p>Logic is checked against the signatures when it is loaded (see {@link TypeChecker}). Calls proven to
+     * match the signature are executed by {@link #executeChecked(List, CoachContext)}.</p>
+     *
+     * @return the signature, or null if the command does not declare one
+     */
+    public Signature getSignature() {
+        return signature;
+    }
+
+    /***
+     * <p>Executes the command in an executor context.</p>
+     *
+     * <p>The coach context is only copied if the command is executed in a context other than its own (e.g.
+     * in the context of the parent coach).</p>
+     *
+     * @param list         the parameters (normalized as far as requested by the command), only valid during
+     *                     the call (see {@link ArgumentFrame})
+     * @param coachContext the context of the evaluation
+     * @param eContext     the executor context to execute the command in
+     * @return the result of the command
+     * @throws ExecutorException if the command fails
+     */
     public Atom execute(List<Atom> list, CoachContext coachContext, ExecutorContext eContext) throws ExecutorException {
-        CoachContext cc = coachContext.copy();
-        cc.setContext(eContext);
-        return execute(list, cc);
+        return execute(list, coachContext, eContext, false);
+    }
+
+    /* executes a call in an executor context, by the fast path if the call has been checked */
+    Atom execute(List<Atom> list, CoachContext coachContext, ExecutorContext eContext, boolean checked)
+            throws ExecutorException {
+        CoachContext cc = coachContext;
+        if (cc.getContext() != eContext) {
+            cc = coachContext.copy();
+            cc.setContext(eContext);
+        }
+        return checked ? executeChecked(list, cc) : execute(list, cc);
+    }
+
+    /***
+     * <p>Selects the parameter a command evaluates to, if any.</p>
+     *
+     * <p>Commands whose result is the result of one of their parameters (such as <code>if</code>)
+     * return that parameter here. The evaluator then continues with the parameter instead of
+     * calling {@link #execute(List, CoachContext)}, which keeps deeply nested expressions off the
+     * Java stack. The parameter is evaluated in the executor context of the command. All other
+     * commands return null.</p>
+     *
+     * @param list         the parameters (normalized as far as requested by the command)
+     * @param coachContext the context of the evaluation
+     * @return the parameter to evaluate in place of the command, or null to execute the command
+     * @throws ExecutorException if the parameters are not valid
+     */
+    public Atom getTailParameter(List<Atom> list, CoachContext coachContext) throws ExecutorException {
+        return null;
+    }
+
+    /***
+     * <p>Builds the compiled form of an atom calling this command.</p>
+     *
+     * <p>The default form of pure commands with eager parameters only evaluates the parameters (up to a short
+     * circuit) and calls {@link #execute(List, CoachContext)}; all other commands are executed the way the
+     * interpreter does. Commands may return a specialized form, which has to yield the same result as
+     * the interpreter.</p>
+     *
+     * @param atom       the atom to compile, calling this command
+     * @param parameters the compiled parameters of the atom
+     * @return the compiled form of the atom
+     */
+    public CompiledExpression compile(Atom atom, CompiledExpression[] parameters) {
+        if (pure && atom.getParentPointer() == 0) {
+            boolean eager = true;
+            for (int i = 0; i < parameters.length && eager; i++) {
+                eager = isEagerParameter(i);
+            }
+            if (eager) {
+                return AstCompiler.pure(this, parameters, atom.isTypeChecked());
+            }
+        }
+        return AstCompiler.generic(this, atom, parameters);
+    }
+
+    /***
+     * <p>Evaluates a parameter if required and checks its type.</p>
+     *
+     * <p>This is the variant of {@link #checkAtomType(Atom, List, boolean, CoachContext, String)} for a single
+     * allowed type, which does not need a list of types unless the check fails.</p>
+     *
+     * @param atom          the parameter
+     * @param type          the allowed type
+     * @param evaluate      true if a METHODE atom is evaluated before checking the type
+     * @param context       the context of the evaluation
+     * @param parameterName the name of the parameter for the exception message
+     * @return the (evaluated) parameter
+     * @throws ExecutorException if the evaluation fails or the type is illegal
+     */
+    public Atom checkAtomType(Atom atom, AtomType type, boolean evaluate, CoachContext context, String parameterName)
+            throws ExecutorException {
+        if (atom != null && atom.getType() == AtomType.METHODE && evaluate) {
+            atom = atom.execute(context);
+        }
+        if (atom != null && atom.getType() == type) {
+            return atom;
+        }
+        return checkAtomType(atom, Collections.singletonList(type), false, context, parameterName);
     }
 
     public Atom checkAtomType(
@@ -170,5 +336,30 @@ public abstract class Command {
         }
     }
 
+    /***
+     * <p>Executes the command.</p>
+     *
+     * @param list         the parameters (normalized as far as requested by the command), only valid during
+     *                     the call (see {@link ArgumentFrame})
+     * @param coachContext the context of the evaluation
+     * @return the result of the command
+     * @throws ExecutorException if the command fails
+     */
     public abstract Atom execute(List<Atom> list, CoachContext coachContext) throws ExecutorException;
+
+    /***
+     * <p>Executes a call proven to match the signature of the command.</p>
+     *
+     * <p>The number of parameters is within the bounds of the signature and every eager parameter (see
+     * {@link #isEagerParameter(int)}) is evaluated and of a declared type, so the command may skip its runtime
+     * checks. By default the command is executed with all checks.</p>
+     *
+     * @param list         the parameters, only valid during the call (see {@link ArgumentFrame})
+     * @param coachContext the context of the evaluation
+     * @return the result of the command
+     * @throws ExecutorException if the command fails
+     */
+    public Atom executeChecked(List<Atom> list, CoachContext coachContext) throws ExecutorException {
+        return execute(list, coachContext);
+    }
 }
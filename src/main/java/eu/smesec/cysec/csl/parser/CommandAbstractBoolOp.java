@@ -20,37 +20,80 @@
 package eu.smesec.cysec.csl.parser;
 
 import java.util.List;
-import java.util.Vector;
 
 public abstract class CommandAbstractBoolOp extends Command {
 
-    private static final Atom TRUE = new Atom(Atom.AtomType.BOOL, "TRUE", null);
-    private static final Atom FALSE = new Atom(Atom.AtomType.BOOL, "FALSE", null);
+    public CommandAbstractBoolOp() {
+        pure = true;
+        shortCircuit = true;
+        signature = new Signature(1, Integer.MAX_VALUE).returns(Atom.AtomType.BOOL).parameter(Atom.AtomType.BOOL);
+    }
 
     @Override
     public Atom execute(List<Atom> list, CoachContext coachContext) throws ExecutorException {
         if (list == null || list.size() < 1) {
             throw new ExecutorException("boolean operations require at least one argument");
         }
-        List<Boolean> blist = new Vector<>();
-        for (Atom a : list) {
-            String old = a.toString();
-            try {
-                if (a.getType() == Atom.AtomType.METHODE) {
-                    a = a.execute(coachContext);
-                }
-                blist.add(a.isTrue(coachContext));
-            } catch (ExecutorException e) {
-                throw new ExecutorException(
-                        "Exception while evaluating parameter " + old + "in boolean op " + getCommandName(), e);
+        int trueCount = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if (isTrue(list.get(i), coachContext)) {
+                trueCount++;
             }
         }
-        if (evaluate(blist, coachContext.getContext())) {
-            return TRUE;
-        } else {
-            return FALSE;
+        return Atom.ofBoolean(evaluate(list.size(), trueCount, coachContext.getContext()));
+    }
+
+    @Override
+    public Atom executeChecked(List<Atom> list, CoachContext coachContext) throws ExecutorException {
+        // the parameters are evaluated and known to be booleans
+        int trueCount = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).getBooleanValue()) {
+                trueCount++;
+            }
         }
+        return Atom.ofBoolean(evaluate(list.size(), trueCount, coachContext.getContext()));
+    }
+
+    @Override
+    public Atom getShortCircuitResult(List<Atom> evaluated, CoachContext coachContext) throws ExecutorException {
+        int last = evaluated.size() - 1;
+        return decide(evaluated, isTrue(evaluated.get(last), coachContext));
+    }
+
+    /***
+     * <p>Decides the operation once a parameter has been evaluated, if possible.</p>
+     *
+     * @param evaluated the parameters evaluated so far, all of them valid
+     * @param value     the value of the last parameter
+     * @return the result of the operation, or null if the remaining parameters are required
+     */
+    Atom decide(List<Atom> evaluated, boolean value) {
+        return null;
     }
 
-    abstract boolean evaluate(List<Boolean> list, ExecutorContext context) throws ExecutorException;
+    /***
+     * <p>Combines the values of the parameters.</p>
+     *
+     * @param count     the number of parameters
+     * @param trueCount the number of parameters evaluating to TRUE
+     * @param context   the executor context of the operation
+     * @return the result of the operation
+     * @throws ExecutorException if the number of parameters is not supported
+     */
+    abstract boolean evaluate(int count, int trueCount, ExecutorContext context) throws ExecutorException;
+
+    private boolean isTrue(Atom parameter, CoachContext coachContext) throws ExecutorException {
+        try {
+            Atom a = parameter;
+            if (a.getType() == Atom.AtomType.METHODE) {
+                a = a.execute(coachContext);
+            }
+            return a.isTrue(coachContext);
+        } catch (ExecutorException e) {
+            // the parameter is only printed if needed
+            throw new ExecutorException(
+                    "Exception while evaluating parameter " + parameter + "in boolean op " + getCommandName(), e);
+        }
+    }
 }
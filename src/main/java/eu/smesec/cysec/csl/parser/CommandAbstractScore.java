@@ -22,34 +22,46 @@ package eu.smesec.cysec.csl.parser;
 import eu.smesec.cysec.csl.parser.Atom.AtomType;
 import java.util.Arrays;
 import java.util.List;
+import java.util.logging.Level;
 
 public abstract class CommandAbstractScore extends Command {
 
+    private static final List<AtomType> NUMBER_TYPES = Arrays.asList(AtomType.INTEGER, AtomType.FLOAT);
+
+    public CommandAbstractScore() {
+        signature = new Signature(2, 2).returns(AtomType.NULL).parameter(AtomType.STRING).parameter(NUMBER_TYPES);
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // expects 3 parameters: origin question id, score name and value
         checkNumParams(aList, 2);
 
         // evaluate parameters
-        Atom scoreName = checkAtomType(aList.get(0), Arrays.asList(AtomType.STRING), true, coachContext, "scoreName");
-        Atom scoreValue = checkAtomType(
-                aList.get(1),
-                Arrays.asList(new AtomType[] {AtomType.INTEGER, AtomType.FLOAT}),
-                true,
-                coachContext,
-                "scoreValue");
+        Atom scoreName = checkAtomType(aList.get(0), AtomType.STRING, true, coachContext, "scoreName");
+        Atom scoreValue = checkAtomType(aList.get(1), NUMBER_TYPES, true, coachContext, "scoreValue");
+        return score(scoreName, scoreValue, coachContext);
+    }
+
+    @Override
+    public Atom executeChecked(List<Atom> aList, CoachContext coachContext) {
+        return score(aList.get(0), aList.get(1), coachContext);
+    }
 
+    private Atom score(Atom scoreName, Atom scoreValue, CoachContext coachContext) {
         // set the score
         score(
                 scoreName.getId(),
-                coachContext.getQuestionContext().getId(),
-                Double.valueOf(scoreValue.getId()),
+                coachContext.getScoreQuestionId(),
+                scoreValue.hasPrimitiveValue() ? scoreValue.getDoubleValue() : Double.valueOf(scoreValue.getId()),
                 coachContext.getContext());
-        coachContext
-                .getLogger()
-                .fine(String.format(
-                        "Adding %s to score %s in context %s",
-                        scoreValue.getId(), scoreName.getId(), coachContext.getContext()));
+        if (coachContext.getLogger().isLoggable(Level.FINE)) {
+            coachContext
+                    .getLogger()
+                    .fine(String.format(
+                            "Adding %s to score %s in context %s",
+                            scoreValue.getId(), scoreName.getId(), coachContext.getContext()));
+        }
 
         return Atom.NULL_ATOM;
     }
@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.skills.BadgeFactory;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -116,21 +115,28 @@ import java.util.List;
  */
 public class CommandAddBadge extends Command {
 
+    public CommandAddBadge() {
+        signature = new Signature(6, 6)
+                .parameter(Atom.AtomType.STRING)
+                .parameter(Atom.AtomType.INTEGER)
+                .parameter(Atom.AtomType.STRING);
+    }
+
     @Override
     public Atom execute(List<Atom> list, CoachContext coachContext) throws ExecutorException {
         checkNumParams(list, 6);
 
         // evaluate parameters
         Atom badgeName =
-                checkAtomType(list.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "BadgeName");
+                checkAtomType(list.get(0), Atom.AtomType.STRING, true, coachContext, "BadgeName");
         Atom order =
-                checkAtomType(list.get(1), Arrays.asList(Atom.AtomType.INTEGER), true, coachContext, "BadgeClassName");
-        Atom urlImg = checkAtomType(list.get(2), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "ImageUrl");
+                checkAtomType(list.get(1), Atom.AtomType.INTEGER, true, coachContext, "BadgeClassName");
+        Atom urlImg = checkAtomType(list.get(2), Atom.AtomType.STRING, true, coachContext, "ImageUrl");
         Atom altImg =
-                checkAtomType(list.get(3), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "ImageDescription");
+                checkAtomType(list.get(3), Atom.AtomType.STRING, true, coachContext, "ImageDescription");
         Atom description =
-                checkAtomType(list.get(4), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "Description");
-        Atom urlLink = checkAtomType(list.get(5), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "urlLink");
+                checkAtomType(list.get(4), Atom.AtomType.STRING, true, coachContext, "Description");
+        Atom urlLink = checkAtomType(list.get(5), Atom.AtomType.STRING, true, coachContext, "urlLink");
 
         CySeCExecutorContextFactory.CySeCExecutorContext c =
                 (CySeCExecutorContextFactory.CySeCExecutorContext) (coachContext.getContext());
@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.skills.BadgeFactory;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -122,6 +121,14 @@ import java.util.List;
  */
 public class CommandAddBadgeClass extends Command {
 
+    public CommandAddBadgeClass() {
+        signature = new Signature(7, 7)
+                .parameter(Atom.AtomType.STRING)
+                .parameter(Atom.AtomType.STRING)
+                .parameter(Atom.AtomType.INTEGER)
+                .parameter(Atom.AtomType.STRING);
+    }
+
     @Override
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
         // expects 7 parameters
@@ -129,17 +136,17 @@ public class CommandAddBadgeClass extends Command {
 
         // evaluate parameters
         Atom badgeName =
-                checkAtomType(aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "BadgeName");
+                checkAtomType(aList.get(0), Atom.AtomType.STRING, true, coachContext, "BadgeName");
         Atom badgeClassName =
-                checkAtomType(aList.get(1), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "BadgeClass");
+                checkAtomType(aList.get(1), Atom.AtomType.STRING, true, coachContext, "BadgeClass");
         Atom order =
-                checkAtomType(aList.get(2), Arrays.asList(Atom.AtomType.INTEGER), true, coachContext, "BadgeOrder");
-        Atom urlImg = checkAtomType(aList.get(3), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "ImageURL");
+                checkAtomType(aList.get(2), Atom.AtomType.INTEGER, true, coachContext, "BadgeOrder");
+        Atom urlImg = checkAtomType(aList.get(3), Atom.AtomType.STRING, true, coachContext, "ImageURL");
         Atom altImg =
-                checkAtomType(aList.get(4), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "ImageAlternate");
+                checkAtomType(aList.get(4), Atom.AtomType.STRING, true, coachContext, "ImageAlternate");
         Atom description =
-                checkAtomType(aList.get(5), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "Description");
-        Atom urlLink = checkAtomType(aList.get(6), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "LinkURL");
+                checkAtomType(aList.get(5), Atom.AtomType.STRING, true, coachContext, "Description");
+        Atom urlLink = checkAtomType(aList.get(6), Atom.AtomType.STRING, true, coachContext, "LinkURL");
 
         CySeCExecutorContextFactory.CySeCExecutorContext c =
                 (CySeCExecutorContextFactory.CySeCExecutorContext) (coachContext.getContext());
@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.skills.RecommendationFactory;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -140,22 +139,29 @@ import java.util.stream.Collectors;
  * </div>
  */
 public class CommandAddRecommendation extends Command {
+
+    public CommandAddRecommendation() {
+        signature = new Signature(8, 9)
+                .parameter(Atom.AtomType.STRING)
+                .parameter(Atom.AtomType.INTEGER)
+                .parameter(Atom.AtomType.STRING);
+    }
     @Override
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
         checkNumParams(aList, 8, 9);
 
         // evaluate parameters
         Atom recommendationName = checkAtomType(
-                aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "recommendationName");
-        Atom order = checkAtomType(aList.get(1), Arrays.asList(Atom.AtomType.INTEGER), true, coachContext, "order");
-        Atom urlImg = checkAtomType(aList.get(2), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "urlImg");
-        Atom altImg = checkAtomType(aList.get(3), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "altImg");
-        Atom title = checkAtomType(aList.get(4), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "title");
+                aList.get(0), Atom.AtomType.STRING, true, coachContext, "recommendationName");
+        Atom order = checkAtomType(aList.get(1), Atom.AtomType.INTEGER, true, coachContext, "order");
+        Atom urlImg = checkAtomType(aList.get(2), Atom.AtomType.STRING, true, coachContext, "urlImg");
+        Atom altImg = checkAtomType(aList.get(3), Atom.AtomType.STRING, true, coachContext, "altImg");
+        Atom title = checkAtomType(aList.get(4), Atom.AtomType.STRING, true, coachContext, "title");
         Atom description =
-                checkAtomType(aList.get(5), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "description");
+                checkAtomType(aList.get(5), Atom.AtomType.STRING, true, coachContext, "description");
         Atom textLink =
-                checkAtomType(aList.get(6), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "textLink");
-        Atom urlLink = checkAtomType(aList.get(7), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "urlLink");
+                checkAtomType(aList.get(6), Atom.AtomType.STRING, true, coachContext, "textLink");
+        Atom urlLink = checkAtomType(aList.get(7), Atom.AtomType.STRING, true, coachContext, "urlLink");
 
         // execute command
         CySeCExecutorContextFactory.CySeCExecutorContext c =
@@ -163,7 +169,7 @@ public class CommandAddRecommendation extends Command {
 
         // Check if the user passed tags
         if (aList.size() == 9) {
-            Atom tags = checkAtomType(aList.get(8), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "tags");
+            Atom tags = checkAtomType(aList.get(8), Atom.AtomType.STRING, true, coachContext, "tags");
             List<RecommendationFactory.Tag> parsedTags = CommandArrayElements.stringToList(tags.getId()).stream()
                     .map(RecommendationFactory.Tag::parse)
                     .filter(Optional::isPresent)
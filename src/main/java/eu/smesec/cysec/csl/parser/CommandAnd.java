@@ -84,7 +84,7 @@ import java.util.List;
  *     <h3>Notes</h3>
  *     <ul>
  *       <li>If no parameters are provided, the behavior is undefined and may result in an error.</li>
- *       <li>Parameters are evaluated sequentially, and if any `FALSE` is encountered, evaluation may short-circuit (not all parameters might be evaluated if the result is already determined).</li>
+ *       <li>Parameters are evaluated sequentially, and once a `FALSE` is encountered, evaluation short-circuits (the remaining parameters are not evaluated).</li>
  *     </ul>
  *   </div>
  * </div>
@@ -92,12 +92,12 @@ import java.util.List;
 public class CommandAnd extends CommandAbstractBoolOp {
 
     @Override
-    boolean evaluate(List<Boolean> list, ExecutorContext context) {
-        for (boolean b : list) {
-            if (!b) {
-                return false;
-            }
-        }
-        return true;
+    Atom decide(List<Atom> evaluated, boolean value) {
+        return value ? null : Atom.FALSE;
+    }
+
+    @Override
+    boolean evaluate(int count, int trueCount, ExecutorContext context) {
+        return trueCount == count;
     }
 }
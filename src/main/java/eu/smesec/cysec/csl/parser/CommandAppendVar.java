@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.parser.Atom.AtomType;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -99,6 +98,10 @@ import java.util.List;
  */
 public class CommandAppendVar extends Command {
 
+    public CommandAppendVar() {
+        signature = new Signature(2, 2).returns(AtomType.NULL).parameter().parameter(AtomType.STRING);
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // expects 2 or 3 parameters
@@ -107,7 +110,7 @@ public class CommandAppendVar extends Command {
         // evaluate parameters
         Atom varName = aList.get(0).execute(coachContext);
         Atom varContent =
-                checkAtomType(aList.get(1), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "content");
+                checkAtomType(aList.get(1), Atom.AtomType.STRING, true, coachContext, "content");
 
         // set the variable
         coachContext
@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.parser.Atom.AtomType;
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -108,6 +107,14 @@ import java.util.Set;
  */
 public class CommandArrayAdd extends CommandAbstractList {
 
+    public CommandArrayAdd() {
+        signature = new Signature(2, 3)
+                .returns(AtomType.BOOL)
+                .parameter(AtomType.STRING)
+                .parameter(AtomType.STRING)
+                .parameter(AtomType.BOOL);
+    }
+
     @Override
     /**
      * Adds an element to an existing array.
@@ -130,11 +137,11 @@ public class CommandArrayAdd extends CommandAbstractList {
         checkNumParams(aList, 2, 3);
 
         // evaluate parameters
-        Atom arr = checkAtomType(aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "ArrayList");
-        Atom elem = checkAtomType(aList.get(1), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "ArrayList");
+        Atom arr = checkAtomType(aList.get(0), Atom.AtomType.STRING, true, coachContext, "ArrayList");
+        Atom elem = checkAtomType(aList.get(1), Atom.AtomType.STRING, true, coachContext, "ArrayList");
         Atom unique = Atom.FALSE;
         if (aList.size() > 2) {
-            unique = checkAtomType(aList.get(2), Arrays.asList(AtomType.BOOL), true, coachContext, "unique");
+            unique = checkAtomType(aList.get(2), AtomType.BOOL, true, coachContext, "unique");
         }
 
         Atom arrayVar = coachContext.getContext().getVariable(arr.getId(), null);
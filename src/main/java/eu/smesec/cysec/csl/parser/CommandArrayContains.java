@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.parser.Atom.AtomType;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -99,6 +98,10 @@ import java.util.List;
  */
 public class CommandArrayContains extends CommandAbstractList {
 
+    public CommandArrayContains() {
+        signature = new Signature(2, 2).returns(AtomType.BOOL).parameter(AtomType.STRING);
+    }
+
     @Override
     /**
      * Checks if an array contains the element specified.
@@ -116,8 +119,8 @@ public class CommandArrayContains extends CommandAbstractList {
         checkNumParams(aList, 2, 2);
 
         // evaluate parameters
-        Atom arr = checkAtomType(aList.get(0), Arrays.asList(AtomType.STRING), true, coachContext, "ArrayList");
-        Atom elem = checkAtomType(aList.get(1), Arrays.asList(AtomType.STRING), true, coachContext, "arrayElement");
+        Atom arr = checkAtomType(aList.get(0), AtomType.STRING, true, coachContext, "ArrayList");
+        Atom elem = checkAtomType(aList.get(1), AtomType.STRING, true, coachContext, "arrayElement");
 
         List<String> tempList = stringToList(
                 coachContext.getContext().getVariable(arr.getId(), null).getId());
@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.parser.Atom.AtomType;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -99,6 +98,10 @@ import java.util.List;
  */
 public class CommandArrayElements extends CommandAbstractList {
 
+    public CommandArrayElements() {
+        signature = new Signature(2, 2).returns(AtomType.BOOL).parameter(AtomType.STRING).parameter(AtomType.INTEGER);
+    }
+
     @Override
     /**
      * Checks if an array has the specified size.
@@ -116,8 +119,8 @@ public class CommandArrayElements extends CommandAbstractList {
         checkNumParams(aList, 2, 2);
 
         // evaluate parameters
-        Atom arr = checkAtomType(aList.get(0), Arrays.asList(AtomType.STRING), true, coachContext, "arrayList");
-        Atom noelem = checkAtomType(aList.get(1), Arrays.asList(AtomType.INTEGER), true, coachContext, "arrayLength");
+        Atom arr = checkAtomType(aList.get(0), AtomType.STRING, true, coachContext, "arrayList");
+        Atom noelem = checkAtomType(aList.get(1), AtomType.INTEGER, true, coachContext, "arrayLength");
 
         List<String> tempList = stringToList(
                 coachContext.getContext().getVariable(arr.getId(), null).getId());
@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.parser.Atom.AtomType;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -98,6 +97,10 @@ import java.util.List;
  */
 public class CommandArrayLength extends CommandAbstractList {
 
+    public CommandArrayLength() {
+        signature = new Signature(1, 1).returns(AtomType.INTEGER).parameter(AtomType.STRING);
+    }
+
     @Override
     /**
      * Returns the size of the specified array as Integer.
@@ -114,7 +117,7 @@ public class CommandArrayLength extends CommandAbstractList {
         checkNumParams(aList, 1, 1);
 
         // evaluate parameters
-        Atom arr = checkAtomType(aList.get(0), Arrays.asList(AtomType.STRING), true, coachContext, "arrayList");
+        Atom arr = checkAtomType(aList.get(0), AtomType.STRING, true, coachContext, "arrayList");
 
         List<String> tempList = stringToList(
                 coachContext.getContext().getVariable(arr.getId(), null).getId());
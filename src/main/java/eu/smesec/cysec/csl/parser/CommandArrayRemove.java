@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.parser.Atom.AtomType;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -99,6 +98,14 @@ import java.util.List;
  */
 public class CommandArrayRemove extends CommandAbstractList {
 
+    public CommandArrayRemove() {
+        signature = new Signature(2, 3)
+                .returns(AtomType.BOOL)
+                .parameter(AtomType.STRING)
+                .parameter(AtomType.STRING)
+                .parameter();
+    }
+
     @Override
     /**
      * Adds an element to an existing array.
@@ -121,8 +128,8 @@ public class CommandArrayRemove extends CommandAbstractList {
         checkNumParams(aList, 2, 3);
 
         // evaluate parameters
-        Atom arr = checkAtomType(aList.get(0), Arrays.asList(AtomType.STRING), true, coachContext, "ArrayList");
-        Atom elem = checkAtomType(aList.get(1), Arrays.asList(AtomType.STRING), true, coachContext, "ArrayList");
+        Atom arr = checkAtomType(aList.get(0), AtomType.STRING, true, coachContext, "ArrayList");
+        Atom elem = checkAtomType(aList.get(1), AtomType.STRING, true, coachContext, "ArrayList");
         Atom unique = Atom.FALSE;
 
         List<String> tempList = stringToList(
@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.skills.BadgeFactory;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -96,15 +95,19 @@ import java.util.List;
  * </div>
  */
 public class CommandAwardBadge extends Command {
+
+    public CommandAwardBadge() {
+        signature = new Signature(2, 2).returns(Atom.AtomType.NULL).parameter(Atom.AtomType.STRING);
+    }
     @Override
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
         checkNumParams(aList, 2);
 
         // evaluate parameters
         Atom badgeName =
-                checkAtomType(aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "BadgeName");
+                checkAtomType(aList.get(0), Atom.AtomType.STRING, true, coachContext, "BadgeName");
         Atom badgeClass =
-                checkAtomType(aList.get(1), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "BadgeClass");
+                checkAtomType(aList.get(1), Atom.AtomType.STRING, true, coachContext, "BadgeClass");
 
         // execute command
         CySeCExecutorContextFactory.CySeCExecutorContext c =
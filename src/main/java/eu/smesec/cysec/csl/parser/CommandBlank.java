@@ -64,6 +64,11 @@ import java.util.List;
  */
 public class CommandBlank extends Command {
 
+    public CommandBlank() {
+        pure = true;
+        signature = new Signature(0, Integer.MAX_VALUE).returns(Atom.AtomType.STRING);
+    }
+
     public Atom execute(List<Atom> a, CoachContext coachContext) {
         return new Atom(Atom.AtomType.STRING, "", null);
     }
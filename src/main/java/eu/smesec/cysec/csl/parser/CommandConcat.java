@@ -93,12 +93,18 @@ import java.util.List;
  */
 public class CommandConcat extends Command {
 
+    public CommandConcat() {
+        pure = true;
+        signature = new Signature(1, Integer.MAX_VALUE).returns(Atom.AtomType.STRING);
+    }
+
     @Override
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
         checkNumParams(aList, 1, Integer.MAX_VALUE);
 
         StringBuilder sb = new StringBuilder();
-        for (Atom a : aList) {
+        for (int i = 0; i < aList.size(); i++) {
+            Atom a = aList.get(i);
             if (a.getType() == Atom.AtomType.METHODE) {
                 a = a.execute(coachContext);
             }
@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.parser.Atom.AtomType;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -101,15 +100,25 @@ import java.util.List;
  */
 public class CommandContains extends Command {
 
+    public CommandContains() {
+        pure = true;
+        signature = new Signature(2, 2).returns(AtomType.BOOL).parameter(AtomType.STRING);
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // expects 2 or 3 parameters
         checkNumParams(aList, 2, 2);
 
         // evaluate parameters
-        Atom varHaystack = checkAtomType(aList.get(0), Arrays.asList(AtomType.STRING), true, coachContext, "content");
-        Atom varNeedle = checkAtomType(aList.get(1), Arrays.asList(AtomType.STRING), true, coachContext, "content");
+        Atom varHaystack = checkAtomType(aList.get(0), AtomType.STRING, true, coachContext, "content");
+        Atom varNeedle = checkAtomType(aList.get(1), AtomType.STRING, true, coachContext, "content");
 
         return (varHaystack.getId().contains(varNeedle.getId()) ? Atom.TRUE : Atom.FALSE);
     }
+
+    @Override
+    public Atom executeChecked(List<Atom> aList, CoachContext coachContext) {
+        return Atom.ofBoolean(aList.get(0).getId().contains(aList.get(1).getId()));
+    }
 }
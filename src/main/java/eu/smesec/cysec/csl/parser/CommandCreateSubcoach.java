@@ -24,7 +24,6 @@ import eu.smesec.cysec.platform.bridge.CoachLibrary;
 import eu.smesec.cysec.platform.bridge.execptions.CacheException;
 import eu.smesec.cysec.platform.bridge.generated.Metadata;
 import eu.smesec.cysec.platform.bridge.generated.Questionnaire;
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -111,18 +110,21 @@ import java.util.logging.Level;
  */
 public class CommandCreateSubcoach extends Command {
 
+    public CommandCreateSubcoach() {
+        signature = new Signature(2, 3).parameter(Atom.AtomType.STRING);
+    }
+
     @Override
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
         checkNumParams(aList, 2, 3);
 
         // evaluate parameters
-        Atom coachID = checkAtomType(aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "coachID");
+        Atom coachID = checkAtomType(aList.get(0), Atom.AtomType.STRING, true, coachContext, "coachID");
         Atom fileIdentifier =
-                checkAtomType(aList.get(1), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "fileIdentifier");
+                checkAtomType(aList.get(1), Atom.AtomType.STRING, true, coachContext, "fileIdentifier");
         Atom parentArgument;
         if (aList.size() == 3) {
-            parentArgument = checkAtomType(
-                    aList.get(2), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "parentArgument");
+            parentArgument = checkAtomType(aList.get(2), Atom.AtomType.STRING, true, coachContext, "parentArgument");
         } else {
             parentArgument = Atom.NULL_ATOM;
         }
@@ -106,30 +106,46 @@ import java.util.List;
  */
 public class CommandEquals extends Command {
 
+    private static final List<AtomType> VALUE_TYPES =
+            Arrays.asList(AtomType.STRING, AtomType.INTEGER, AtomType.FLOAT, AtomType.BOOL, AtomType.NULL);
+
+    public CommandEquals() {
+        pure = true;
+        signature = new Signature(2, 2).returns(AtomType.BOOL).parameter(VALUE_TYPES);
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // Two parameters expected: Two atoms of any type meant to compare
         checkNumParams(aList, 2);
 
         // evaluate parameters
-        Atom atom1 = checkAtomType(
-                aList.get(0),
-                Arrays.asList(Atom.AtomType.STRING, AtomType.INTEGER, AtomType.FLOAT, AtomType.BOOL, AtomType.NULL),
-                true,
-                coachContext,
-                "leftValue");
-        Atom atom2 = checkAtomType(
-                aList.get(1),
-                Arrays.asList(Atom.AtomType.STRING, AtomType.INTEGER, AtomType.FLOAT, AtomType.BOOL, AtomType.NULL),
-                true,
-                coachContext,
-                "rightValue");
+        Atom atom1 = checkAtomType(aList.get(0), VALUE_TYPES, true, coachContext, "leftValue");
+        Atom atom2 = checkAtomType(aList.get(1), VALUE_TYPES, true, coachContext, "rightValue");
+        return equals(atom1, atom2);
+    }
 
+    @Override
+    public Atom executeChecked(List<Atom> aList, CoachContext coachContext) {
+        return equals(aList.get(0), aList.get(1));
+    }
+
+    private static Atom equals(Atom atom1, Atom atom2) {
         // Check equivalence
         if (atom1.getType().equals(atom2.getType())) {
             if (AtomType.NULL.equals(atom1.getType())) {
                 // Return TRUE if both atoms are of a NULL type
                 return Atom.TRUE;
+            } else if (atom1.hasPrimitiveValue() && atom2.hasPrimitiveValue()) {
+                // compare the values directly; Double.compare keeps the distinction of the ids "0.0" and "-0.0"
+                switch (atom1.getType()) {
+                    case INTEGER:
+                        return Atom.ofBoolean(atom1.getLongValue() == atom2.getLongValue());
+                    case FLOAT:
+                        return Atom.ofBoolean(Double.compare(atom1.getDoubleValue(), atom2.getDoubleValue()) == 0);
+                    default:
+                        return Atom.ofBoolean(atom1.getBooleanValue() == atom2.getBooleanValue());
+                }
             } else if (atom1.getType() != AtomType.METHODE) {
                 if (atom1.getId().equals(atom2.getId())) {
                     // Both atoms are of same type and value
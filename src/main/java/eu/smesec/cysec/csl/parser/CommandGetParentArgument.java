@@ -71,6 +71,10 @@ import java.util.List;
  */
 public class CommandGetParentArgument extends Command {
 
+    public CommandGetParentArgument() {
+        signature = new Signature(0, Integer.MAX_VALUE).returns(Atom.AtomType.STRING);
+    }
+
     public Atom execute(List<Atom> a, CoachContext coachContext) {
 
         try {
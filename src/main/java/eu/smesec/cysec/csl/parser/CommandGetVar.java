@@ -117,32 +117,68 @@ import java.util.List;
  */
 public class CommandGetVar extends Command {
 
+    private static final List<AtomType> DEFAULT_TYPES = Arrays.asList(AtomType.STRING, AtomType.INTEGER, AtomType.BOOL, AtomType.FLOAT);
+    private static final List<AtomType> CONTEXT_TYPES = Arrays.asList(AtomType.STRING, AtomType.NULL);
+
+    public CommandGetVar() {
+        signature = new Signature(1, 3).parameter(AtomType.STRING).parameter(DEFAULT_TYPES).parameter(CONTEXT_TYPES);
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // expects 1 parameter
         checkNumParams(aList, 1, 3);
 
         // evaluate parameters
-        Atom varName = checkAtomType(aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "varName");
+        Atom varName = checkAtomType(aList.get(0), Atom.AtomType.STRING, true, coachContext, "varName");
         Atom varDefault = null;
         if (aList.size() > 1) {
-            varDefault = checkAtomType(
-                    aList.get(1),
-                    Arrays.asList(AtomType.STRING, AtomType.INTEGER, AtomType.BOOL, AtomType.FLOAT),
-                    true,
-                    coachContext,
-                    "varDefault");
+            varDefault = checkAtomType(aList.get(1), DEFAULT_TYPES, true, coachContext, "varDefault");
         }
         Atom varContext = NULL_ATOM;
         if (aList.size() > 2) {
-            varContext = checkAtomType(
-                    aList.get(2), Arrays.asList(AtomType.STRING, AtomType.NULL), true, coachContext, "varContext");
+            varContext = checkAtomType(aList.get(2), CONTEXT_TYPES, true, coachContext, "varContext");
         }
+        return get(varName.getId(), null, varDefault, varContext, coachContext);
+    }
+
+    @Override
+    public Atom executeChecked(List<Atom> aList, CoachContext coachContext) {
+        return get(
+                aList.get(0).getId(),
+                null,
+                aList.size() > 1 ? aList.get(1) : null,
+                aList.size() > 2 ? aList.get(2) : NULL_ATOM,
+                coachContext);
+    }
+
+    @Override
+    public CompiledExpression compile(Atom atom, CompiledExpression[] parameters) {
+        // checked calls have a valid number of parameters
+        if (!atom.isTypeChecked()
+                || atom.getParentPointer() != 0
+                || atom.getParameters().get(0).getType() != AtomType.STRING) {
+            return super.compile(atom, parameters);
+        }
+        // the literal name is resolved once
+        VariableSlot slot = VariableSlot.of(atom.getParameters().get(0).getId());
+        CompiledExpression varDefault = parameters.length > 1 ? parameters[1] : null;
+        CompiledExpression varContext = parameters.length > 2 ? parameters[2] : null;
+        return coachContext -> get(
+                slot.getName(),
+                slot,
+                varDefault != null ? varDefault.evaluate(coachContext) : null,
+                varContext != null ? varContext.evaluate(coachContext) : NULL_ATOM,
+                coachContext);
+    }
 
-        // set the score
-        Atom ret = coachContext
-                .getContext()
-                .getVariable(varName.getId(), varContext == NULL_ATOM ? null : varContext.getId());
+    /* gets a variable by its slot if resolved, by its name otherwise */
+    private static Atom get(
+            String name, VariableSlot slot, Atom varDefault, Atom varContext, CoachContext coachContext) {
+        // get the variable
+        ExecutorContext context = coachContext.getContext();
+        String contextId = varContext == NULL_ATOM ? null : varContext.getId();
+        Atom ret = slot != null ? context.getVariable(slot, contextId) : context.getVariable(name, contextId);
 
         if (ret == NULL_ATOM || ret == null) {
             ret = varDefault;
@@ -99,6 +99,15 @@ import java.math.BigDecimal;
  */
 public class CommandGreaterThan extends CommandNumberBinaryPredicate {
 
+    public CommandGreaterThan() {
+        orderPredicate = true;
+    }
+
+    @Override
+    protected boolean testComparison(int comparison) {
+        return comparison > 0;
+    }
+
     @Override
     public boolean test(BigDecimal lhs, BigDecimal rhs) {
         return lhs.compareTo(rhs) > 0;
@@ -98,6 +98,16 @@ import java.math.BigDecimal;
  * </div>
  */
 public class CommandGreaterThanOrEquals extends CommandNumberBinaryPredicate {
+
+    public CommandGreaterThanOrEquals() {
+        orderPredicate = true;
+    }
+
+    @Override
+    protected boolean testComparison(int comparison) {
+        return comparison >= 0;
+    }
+
     @Override
     public boolean test(BigDecimal lhs, BigDecimal rhs) {
         return lhs.compareTo(rhs) >= 0;
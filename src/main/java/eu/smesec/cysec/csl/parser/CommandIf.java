@@ -102,17 +102,54 @@ public class CommandIf extends Command {
 
     public CommandIf() {
         super();
+        pure = true;
         numberOfNormalizedParams = 1;
+        signature = new Signature(2, 3).parameter(Atom.AtomType.BOOL).parameter();
     }
 
     @Override
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
+        Atom ret = getTailParameter(aList, coachContext).execute(coachContext);
+        if (ret != null) {
+            return ret;
+        } else {
+            return Atom.FALSE;
+        }
+    }
+
+    @Override
+    public CompiledExpression compile(Atom atom, CompiledExpression[] parameters) {
+        if (parameters.length < 2 || parameters.length > 3 || atom.getParentPointer() != 0) {
+            // the interpreted form reports the invalid number of parameters or switches the context
+            return super.compile(atom, parameters);
+        }
+        CompiledExpression cond = parameters[0];
+        CompiledExpression then = parameters[1];
+        CompiledExpression otherwise = parameters.length == 3 ? parameters[2] : null;
+        return coachContext -> {
+            Atom condResult = cond.evaluate(coachContext);
+            boolean isTrue;
+            try {
+                isTrue = condResult.isTrue(coachContext);
+            } catch (ExecutorException e) {
+                throw new ExecutorException("Error while executing if condition " + condResult, e);
+            }
+            if (isTrue) {
+                return AstCompiler.falseIfNull(then.evaluate(coachContext));
+            } else if (otherwise != null) {
+                return AstCompiler.falseIfNull(otherwise.evaluate(coachContext));
+            } else {
+                return Atom.FALSE;
+            }
+        };
+    }
+
+    @Override
+    public Atom getTailParameter(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
         checkNumParams(aList, 2, 3);
 
         Atom cond = aList.get(0);
 
-        Atom ret = null;
-
         boolean isTrue;
         try {
             isTrue = cond.isTrue(coachContext);
@@ -120,18 +157,11 @@ public class CommandIf extends Command {
             throw new ExecutorException("Error while executing if condition " + aList.get(0), e);
         }
         if (isTrue) {
-            ret = aList.get(1).execute(coachContext);
-        } else {
-            if (aList.size() == 3) {
-                ret = aList.get(2).execute(coachContext);
-            } else {
-                ret = null;
-            }
-        }
-        if (ret != null) {
-            return ret;
+            return aList.get(1);
+        } else if (aList.size() == 3) {
+            return aList.get(2);
         } else {
-            return new Atom(Atom.AtomType.BOOL, "FALSE", null);
+            return Atom.FALSE;
         }
     }
 }
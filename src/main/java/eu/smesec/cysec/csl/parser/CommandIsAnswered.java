@@ -19,11 +19,8 @@
  */
 package eu.smesec.cysec.csl.parser;
 
-import eu.smesec.cysec.platform.bridge.ILibCal;
 import eu.smesec.cysec.platform.bridge.execptions.CacheException;
 import eu.smesec.cysec.platform.bridge.generated.Answer;
-import eu.smesec.cysec.platform.bridge.generated.Question;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -94,6 +91,10 @@ import java.util.List;
  */
 public class CommandIsAnswered extends Command {
 
+    public CommandIsAnswered() {
+        signature = new Signature(1, 1).returns(Atom.AtomType.BOOL).parameter(Atom.AtomType.STRING);
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // expects 3 parameters: name, context of var and value
@@ -101,21 +102,24 @@ public class CommandIsAnswered extends Command {
 
         // evaluate parameters
         Atom varContent =
-                checkAtomType(aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "varContent");
+                checkAtomType(aList.get(0), Atom.AtomType.STRING, true, coachContext, "varContent");
+        return isAnswered(varContent, coachContext);
+    }
 
+    @Override
+    public Atom executeChecked(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
+        return isAnswered(aList.get(0), coachContext);
+    }
+
+    private Atom isAnswered(Atom varContent, CoachContext coachContext) throws ExecutorException {
         // Check if the question is even visible. If the question is hidden there's no way that it
         // can
         // be answered
-        if (coachContext.getCoach().getQuestions().getQuestion().stream()
-                .filter(q -> q.getId().equals(varContent.getId()))
-                .findFirst()
-                .map(Question::isHidden)
-                .orElseThrow(() -> new ExecutorException("Question id " + varContent.getId() + " doesn't exist"))) {
-            return new Atom(Atom.AtomType.BOOL, "FALSE", null);
+        if (coachContext.getQuestion(varContent.getId()).isHidden()) {
+            return Atom.FALSE;
         }
 
         // determine provided option is selected
-        ILibCal cal = coachContext.getCal();
         Answer answer = null;
         try {
             // Attention: Use question ID instead of question! getAnswer accepts Object.
@@ -124,17 +128,10 @@ public class CommandIsAnswered extends Command {
             // for another
             // question
             // which is not in the current context.
-            answer = cal.getAnswer(coachContext.getFqcn().toString(), varContent.getId());
+            answer = coachContext.getAnswers().getAnswer(varContent.getId());
         } catch (CacheException e) {
             throw new NullPointerException();
         }
-        String boolResult;
-        if (answer != null) {
-            boolResult = "TRUE";
-        } else {
-            boolResult = "FALSE";
-        }
-
-        return new Atom(Atom.AtomType.BOOL, boolResult, null);
+        return Atom.ofBoolean(answer != null);
     }
 }
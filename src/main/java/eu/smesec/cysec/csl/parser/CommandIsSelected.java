@@ -20,10 +20,8 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.platform.bridge.execptions.CacheException;
-import eu.smesec.cysec.platform.bridge.generated.Answer;
-import eu.smesec.cysec.platform.bridge.generated.Question;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -101,6 +99,13 @@ import java.util.regex.Pattern;
  */
 public class CommandIsSelected extends Command {
 
+    /* extracts the id of the question from the id of an option, also used by ConditionIndex */
+    static final Pattern QUESTION_ID = Pattern.compile("[^0-9]*[q]\\d+");
+
+    public CommandIsSelected() {
+        signature = new Signature(1, 1).returns(Atom.AtomType.BOOL).parameter(Atom.AtomType.STRING);
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // expects 3 parameters: name, context of var and value
@@ -108,34 +113,36 @@ public class CommandIsSelected extends Command {
 
         // evaluate parameters
         Atom varContent =
-                checkAtomType(aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "varContent");
+                checkAtomType(aList.get(0), Atom.AtomType.STRING, true, coachContext, "varContent");
+        return isSelected(varContent, coachContext);
+    }
+
+    @Override
+    public Atom executeChecked(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
+        return isSelected(aList.get(0), coachContext);
+    }
 
-        Answer answer = null;
+    private Atom isSelected(Atom varContent, CoachContext coachContext) throws ExecutorException {
+        Set<String> selected = null;
         try {
             //            v
             // q110oNone
             // split id of "company-q10o4" to "q10o4"
             // Problem: question id might contain "o" thus splitting into more than 2 parts!
-            String regex = "[^0-9]*[q]\\d+";
-            Pattern pattern = Pattern.compile(regex);
-            Matcher match = pattern.matcher(varContent.getId());
+            Matcher match = QUESTION_ID.matcher(varContent.getId());
 
             if (match.find()) {
                 String questionId = varContent.getId().substring(match.start(), match.end());
 
                 // disassemble option into question and option by splitting with "o": q10o1
-                answer = coachContext.getCal().getAnswer(coachContext.getFqcn().toString(), questionId);
+                selected = coachContext.getAnswers().getSelectedOptions(questionId);
 
                 // Check if question is hidden and if so immediately return false since answers of
                 // hidden
                 // questions
                 // cannot be selected
-                if (coachContext.getCoach().getQuestions().getQuestion().stream()
-                        .filter(q -> q.getId().equals(questionId))
-                        .findFirst()
-                        .map(Question::isHidden)
-                        .orElseThrow(() -> new ExecutorException("Question id " + questionId + " doesn't exist"))) {
-                    return new Atom(Atom.AtomType.BOOL, "FALSE", null);
+                if (coachContext.getQuestion(questionId).isHidden()) {
+                    return Atom.FALSE;
                 }
 
             } else
@@ -145,30 +152,15 @@ public class CommandIsSelected extends Command {
             coachContext.getLogger().log(Level.SEVERE, String.format("Error loading answer %s", varContent.getId()));
         }
 
-        // determine provided option is selected
-        String boolResult;
-        String ans = null;
-        if (answer != null) {
-            String vc = varContent.getId();
-            ans = " " + (answer.getAidList() == null ? answer.getText() : answer.getAidList()) + " ";
-
-            // don't use ans.contains to avoid unintended matches (e.g. q10HTTP should not match
-            // when
-            // q10HTTPS is
-            // choosen)
-            if (Arrays.stream(ans.split(" ")).anyMatch(it -> it.equals(vc))) {
-                boolResult = "TRUE";
-            } else {
-                boolResult = "FALSE";
-            }
-        } else {
-            ans = "<UNSET>";
-            boolResult = "FALSE";
+        // determine provided option is selected: the options are matched as a whole, to avoid unintended
+        // matches (e.g. q10HTTP should not match when q10HTTPS is choosen)
+        boolean result = selected != null && selected.contains(varContent.getId());
+        if (coachContext.getLogger().isLoggable(Level.FINE)) {
+            coachContext
+                    .getLogger()
+                    .fine(String.format("isSelected(%s) == currently:%s ==> %s", varContent.getId(), selected, result));
         }
-        coachContext
-                .getLogger()
-                .fine(String.format("isSelected(%s) == currently:%s ==> %s", varContent.getId(), ans, boolResult));
 
-        return new Atom(Atom.AtomType.BOOL, boolResult, null);
+        return Atom.ofBoolean(result);
     }
 }
@@ -21,7 +21,6 @@ package eu.smesec.cysec.csl.parser;
 
 import static eu.smesec.cysec.csl.parser.Atom.NULL_ATOM;
 
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -91,6 +90,10 @@ import java.util.List;
  */
 public class CommandNext extends Command {
 
+    public CommandNext() {
+        signature = new Signature(1, 1).returns(Atom.AtomType.NULL).parameter(Atom.AtomType.STRING);
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // expects 1 parameter: next page string
@@ -98,7 +101,7 @@ public class CommandNext extends Command {
 
         // evaluate parameters
         Atom varContent =
-                checkAtomType(aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "varContent");
+                checkAtomType(aList.get(0), Atom.AtomType.STRING, true, coachContext, "varContent");
 
         // assert type of parameters
         if (varContent.getType() != Atom.AtomType.STRING) {
@@ -19,8 +19,6 @@
  */
 package eu.smesec.cysec.csl.parser;
 
-import java.util.List;
-
 /**
  * <div class="command-doc">
  *   <div class="command-header">
@@ -89,11 +87,16 @@ import java.util.List;
  */
 public class CommandNot extends CommandAbstractBoolOp {
 
+    public CommandNot() {
+        shortCircuit = false;
+        signature = new Signature(1, 1).returns(Atom.AtomType.BOOL).parameter(Atom.AtomType.BOOL);
+    }
+
     @Override
-    boolean evaluate(List<Boolean> list, ExecutorContext context) throws ExecutorException {
-        if (list.size() != 1) {
+    boolean evaluate(int count, int trueCount, ExecutorContext context) throws ExecutorException {
+        if (count != 1) {
             throw new ExecutorException("NOT supports only one parameter");
         }
-        return !list.get(0);
+        return trueCount == 0;
     }
 }
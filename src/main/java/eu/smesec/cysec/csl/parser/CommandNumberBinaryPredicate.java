@@ -19,6 +19,7 @@
  */
 package eu.smesec.cysec.csl.parser;
 
+import eu.smesec.cysec.csl.parser.Atom.AtomType;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
@@ -30,26 +31,59 @@ import java.util.function.BiPredicate;
  * {@link BiPredicate#test(Object, Object) test} method determines how the return value of the command is calculated.
  */
 public abstract class CommandNumberBinaryPredicate extends Command implements BiPredicate<BigDecimal, BigDecimal> {
+
+    private static final List<AtomType> NUMBER_TYPES = Arrays.asList(AtomType.FLOAT, AtomType.INTEGER);
+
+    /**
+     * Set by predicates that only depend on the order of the two numbers. Such predicates implement
+     * {@link #testComparison(int)} and are evaluated on the primitive values of the atoms.
+     */
+    protected boolean orderPredicate = false;
+
+    public CommandNumberBinaryPredicate() {
+        pure = true;
+        signature = new Signature(2, 2).returns(AtomType.BOOL);
+    }
+
+    /**
+     * Evaluates an order predicate on the result of comparing the two numbers.
+     *
+     * @param comparison negative, zero or positive if the left hand side is lower than, equal to or greater than
+     *     the right hand side
+     * @return the result of the predicate
+     */
+    protected boolean testComparison(int comparison) {
+        return test(BigDecimal.valueOf(comparison), BigDecimal.ZERO);
+    }
+
+    @Override
+    public CompiledExpression compile(Atom atom, CompiledExpression[] parameters) {
+        if (parameters.length != 2 || atom.getParentPointer() != 0) {
+            return super.compile(atom, parameters);
+        }
+        CompiledExpression lhs = parameters[0];
+        CompiledExpression rhs = parameters[1];
+        return coachContext -> compare(lhs.evaluate(coachContext), rhs.evaluate(coachContext), coachContext);
+    }
+
     @Override
     public Atom execute(List<Atom> atoms, CoachContext coachContext) throws ExecutorException {
         checkNumParams(atoms, 2);
+        return compare(atoms.get(0), atoms.get(1), coachContext);
+    }
+
+    @Override
+    public Atom executeChecked(List<Atom> atoms, CoachContext coachContext) throws ExecutorException {
+        return compare(atoms.get(0), atoms.get(1), coachContext);
+    }
 
+    private Atom compare(Atom lhsParameter, Atom rhsParameter, CoachContext coachContext) throws ExecutorException {
         // Extract arguments
         Atom lhs;
         Atom rhs;
         try {
-            lhs = checkAtomType(
-                    atoms.get(0),
-                    Arrays.asList(Atom.AtomType.FLOAT, Atom.AtomType.INTEGER),
-                    true,
-                    coachContext,
-                    "leftHandSide");
-            rhs = checkAtomType(
-                    atoms.get(1),
-                    Arrays.asList(Atom.AtomType.FLOAT, Atom.AtomType.INTEGER),
-                    true,
-                    coachContext,
-                    "rightHandSide");
+            lhs = checkAtomType(lhsParameter, NUMBER_TYPES, true, coachContext, "leftHandSide");
+            rhs = checkAtomType(rhsParameter, NUMBER_TYPES, true, coachContext, "rightHandSide");
         } catch (ExecutorException e) {
             // If the parameters are not numbers we cannot compare them, thus the result of the
             // comparison
@@ -57,6 +91,18 @@ public abstract class CommandNumberBinaryPredicate extends Command implements Bi
             return Atom.FALSE;
         }
 
+        if (orderPredicate && lhs.hasPrimitiveValue() && rhs.hasPrimitiveValue()) {
+            if (lhs.getType() == Atom.AtomType.INTEGER && rhs.getType() == Atom.AtomType.INTEGER) {
+                return Atom.ofBoolean(testComparison(Long.compare(lhs.getLongValue(), rhs.getLongValue())));
+            }
+            double lhsDouble = lhs.getDoubleValue();
+            double rhsDouble = rhs.getDoubleValue();
+            if (Double.isFinite(lhsDouble) && Double.isFinite(rhsDouble)) {
+                // not Double.compare, as it would order -0.0 before 0.0
+                return Atom.ofBoolean(testComparison(lhsDouble < rhsDouble ? -1 : (lhsDouble > rhsDouble ? 1 : 0)));
+            }
+        }
+
         // Extract value and store as BigDecimal since it can store all other number types
         BigDecimal lhsVal = new BigDecimal(lhs.getId());
         BigDecimal rhsVal = new BigDecimal(rhs.getId());
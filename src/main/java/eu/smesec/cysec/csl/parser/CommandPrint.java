@@ -93,6 +93,10 @@ import java.util.List;
  */
 public class CommandPrint extends Command {
 
+    public CommandPrint() {
+        signature = new Signature(0, Integer.MAX_VALUE).returns(Atom.AtomType.NULL);
+    }
+
     @Override
     public Atom execute(List<Atom> list, CoachContext coachContext) throws ExecutorException {
 
@@ -103,6 +107,6 @@ public class CommandPrint extends Command {
             coachContext.getLogger().info(list.get(0).getId());
         }
 
-        return new Atom(Atom.AtomType.NULL, null, null);
+        return Atom.NULL_ATOM;
     }
 }
@@ -99,6 +99,10 @@ import java.util.logging.Level;
  */
 public class CommandRemoveSubcoach extends Command {
 
+    public CommandRemoveSubcoach() {
+        signature = new Signature(2, 2).parameter(Atom.AtomType.STRING);
+    }
+
     @Override
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
         checkNumParams(aList, 2);
@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.skills.BadgeFactory;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -90,13 +89,17 @@ import java.util.List;
  * </div>
  */
 public class CommandRevokeBadge extends Command {
+
+    public CommandRevokeBadge() {
+        signature = new Signature(1, 1).returns(Atom.AtomType.NULL).parameter(Atom.AtomType.STRING);
+    }
     @Override
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
         checkNumParams(aList, 1, 1);
 
         // evaluate parameters
         Atom badgeName =
-                checkAtomType(aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "BadgeName");
+                checkAtomType(aList.get(0), Atom.AtomType.STRING, true, coachContext, "BadgeName");
 
         // execute command
         CySeCExecutorContextFactory.CySeCExecutorContext c =
@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.skills.RecommendationFactory;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -90,13 +89,17 @@ import java.util.List;
  * </div>
  */
 public class CommandRevokeRecommendation extends Command {
+
+    public CommandRevokeRecommendation() {
+        signature = new Signature(1, 1).returns(Atom.AtomType.NULL).parameter(Atom.AtomType.STRING);
+    }
     @Override
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
         checkNumParams(aList, 1);
 
         // evaluate parameters
         Atom recommendationName = checkAtomType(
-                aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "recommendationName");
+                aList.get(0), Atom.AtomType.STRING, true, coachContext, "recommendationName");
 
         CySeCExecutorContextFactory.CySeCExecutorContext c =
                 (CySeCExecutorContextFactory.CySeCExecutorContext) (coachContext.getContext());
@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.parser.Atom.AtomType;
-import eu.smesec.cysec.platform.bridge.ILibCal;
 import eu.smesec.cysec.platform.bridge.execptions.CacheException;
 import eu.smesec.cysec.platform.bridge.generated.Answer;
 import eu.smesec.cysec.platform.bridge.generated.Question;
@@ -108,15 +107,20 @@ import java.util.List;
  */
 public class CommandSetAnswer extends Command {
 
+    private static final List<AtomType> ANSWER_TYPES = Arrays.asList(AtomType.STRING, AtomType.NULL);
+
+    public CommandSetAnswer() {
+        signature = new Signature(2, 2).returns(AtomType.NULL).parameter(AtomType.STRING).parameter(ANSWER_TYPES);
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // expects 2 parameters: name and value of an answer
         checkNumParams(aList, 2);
 
         // evaluate parameters
-        Atom questionId = checkAtomType(aList.get(0), Arrays.asList(AtomType.STRING), true, coachContext, "questionID");
-        Atom answerValue = checkAtomType(
-                aList.get(1), Arrays.asList(AtomType.STRING, AtomType.NULL), true, coachContext, "answerValue");
+        Atom questionId = checkAtomType(aList.get(0), AtomType.STRING, true, coachContext, "questionID");
+        Atom answerValue = checkAtomType(aList.get(1), ANSWER_TYPES, true, coachContext, "answerValue");
 
         if (answerValue.getType() != AtomType.STRING || questionId.getType() != AtomType.STRING) {
             // TODO is type string really enogh for answer values?
@@ -128,16 +132,12 @@ public class CommandSetAnswer extends Command {
         // value
         String qid = questionId.getId();
 
-        // determine provided option is selected
-        ILibCal cal = coachContext.getCal();
-
         try {
-            Answer answer = cal.getAnswer(coachContext.getFqcn().toString(), qid);
-            Question question = coachContext.getCoach().getQuestions().getQuestion().stream()
-                    .filter(q -> q.getId().equals(qid))
-                    .findAny()
-                    .orElseThrow(
-                            () -> new ExecutorException(String.format("question with id %s does not exist.", qid)));
+            Answer answer = coachContext.getAnswers().getAnswer(qid);
+            Question question = coachContext.getQuestionIndex().get(qid);
+            if (question == null) {
+                throw new ExecutorException(String.format("question with id %s does not exist.", qid));
+            }
 
             if (answer != null) {
                 // update existing
@@ -166,6 +166,9 @@ public class CommandSetAnswer extends Command {
 
         } catch (CacheException e) {
             throw new ExecutorException("error while setting answer of question");
+        } finally {
+            // subsequent reads see the answer as the library holds it now
+            coachContext.getAnswers().invalidate(qid);
         }
 
         return Atom.NULL_ATOM;
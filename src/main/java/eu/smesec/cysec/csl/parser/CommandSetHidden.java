@@ -20,7 +20,6 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.platform.bridge.generated.Question;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -94,6 +93,13 @@ import java.util.List;
  */
 public class CommandSetHidden extends Command {
 
+    public CommandSetHidden() {
+        signature = new Signature(2, 2)
+                .returns(Atom.AtomType.NULL)
+                .parameter(Atom.AtomType.STRING)
+                .parameter(Atom.AtomType.BOOL);
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // expects 2 parameters: name and hidden state
@@ -101,15 +107,12 @@ public class CommandSetHidden extends Command {
 
         // evaluate parameters
         Atom questionID =
-                checkAtomType(aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "questionID");
+                checkAtomType(aList.get(0), Atom.AtomType.STRING, true, coachContext, "questionID");
         Atom varContentBool = checkAtomType(
-                aList.get(1).execute(coachContext), Arrays.asList(Atom.AtomType.BOOL), true, coachContext, "hideState");
+                aList.get(1).execute(coachContext), Atom.AtomType.BOOL, true, coachContext, "hideState");
 
         // Update question hidden status
-        Question question = coachContext.getCoach().getQuestions().getQuestion().stream()
-                .filter(question1 -> question1.getId().equals(questionID.getId()))
-                .findFirst()
-                .orElseThrow(() -> new ExecutorException("Question id " + questionID.getId() + " doesn't exist"));
+        Question question = coachContext.getQuestion(questionID.getId());
         if (question.isHidden() != Boolean.valueOf(varContentBool.getId())) {
             coachContext
                     .getLogger()
@@ -117,8 +120,9 @@ public class CommandSetHidden extends Command {
                             "question %s is new set to hidden=%s (setHidden)",
                             question.getId(), varContentBool.getId()));
             question.setHidden(Boolean.valueOf(varContentBool.getId()));
+            coachContext.getAnswers().visibilityChanged(question.getId());
         }
 
-        return new Atom(Atom.AtomType.NULL, null, null);
+        return Atom.NULL_ATOM;
     }
 }
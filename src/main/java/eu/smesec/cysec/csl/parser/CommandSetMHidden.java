@@ -21,7 +21,6 @@ package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.parser.Atom.AtomType;
 import eu.smesec.cysec.platform.bridge.generated.Question;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -105,6 +104,14 @@ import java.util.List;
  */
 public class CommandSetMHidden extends Command {
 
+    public CommandSetMHidden() {
+        signature = new Signature(3, 3)
+                .returns(AtomType.INTEGER)
+                .parameter(AtomType.STRING)
+                .parameter(AtomType.STRING)
+                .parameter(AtomType.BOOL);
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // Three parameters expected: Lower name (inclusive), higher value (exclusive) and hiding
@@ -112,10 +119,10 @@ public class CommandSetMHidden extends Command {
         checkNumParams(aList, 3);
 
         // evaluate parameters
-        Atom varLowId = checkAtomType(aList.get(0), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "lowID");
-        Atom varHighId = checkAtomType(aList.get(1), Arrays.asList(Atom.AtomType.STRING), true, coachContext, "highID");
+        Atom varLowId = checkAtomType(aList.get(0), Atom.AtomType.STRING, true, coachContext, "lowID");
+        Atom varHighId = checkAtomType(aList.get(1), Atom.AtomType.STRING, true, coachContext, "highID");
         boolean varContentBool = Boolean.valueOf(
-                checkAtomType(aList.get(2), Arrays.asList(Atom.AtomType.BOOL), true, coachContext, "hideState")
+                checkAtomType(aList.get(2), Atom.AtomType.BOOL, true, coachContext, "hideState")
                         .getId());
         coachContext
                 .getLogger()
@@ -136,6 +143,7 @@ public class CommandSetMHidden extends Command {
                     && varHighId.getId().compareTo(question.getId()) > 0
                     && question.isHidden() != varContentBool) {
                 question.setHidden(varContentBool);
+                coachContext.getAnswers().visibilityChanged(question.getId());
                 coachContext
                         .getLogger()
                         .fine(String.format(
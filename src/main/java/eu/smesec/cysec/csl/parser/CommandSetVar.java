@@ -20,6 +20,7 @@
 package eu.smesec.cysec.csl.parser;
 
 import java.util.List;
+import java.util.logging.Level;
 
 /**
  * <div class="command-doc">
@@ -112,6 +113,10 @@ import java.util.List;
  */
 public class CommandSetVar extends Command {
 
+    public CommandSetVar() {
+        signature = new Signature(2, 3).returns(Atom.AtomType.NULL).parameter(Atom.AtomType.STRING).parameter();
+    }
+
     public Atom execute(List<Atom> aList, CoachContext coachContext) throws ExecutorException {
 
         // expects 2 or 3 parameters
@@ -119,33 +124,74 @@ public class CommandSetVar extends Command {
 
         // evaluate parameters
         Atom varName = aList.get(0).execute(coachContext);
-        Atom varContext = aList.get(1).execute(coachContext);
+        Atom varContext = null;
         Atom varContent = null;
         if (aList.size() == 2) {
-            varContext = new Atom(
-                    Atom.AtomType.STRING, coachContext.getQuestionContext().getId(), null);
             varContent = aList.get(1).execute(coachContext);
         } else {
+            varContext = aList.get(1).execute(coachContext);
             varContent = aList.get(2).execute(coachContext);
         }
 
         // assert type of parameters
-        if (varName.getType() != Atom.AtomType.STRING
-                || (varContext.getType() != Atom.AtomType.STRING && varContext != Atom.NULL_ATOM)) {
-            throw new ExecutorException(
-                    "Invalid types for parameters: Provide [0] String, [1] String and [2] ANY or [0] String and [2] ANY");
+        if (varName.getType() != Atom.AtomType.STRING) {
+            throw invalidTypes();
+        }
+        return set(varName.getId(), null, varContext, varContent, coachContext);
+    }
+
+    @Override
+    public CompiledExpression compile(Atom atom, CompiledExpression[] parameters) {
+        // checked calls have a valid number of parameters
+        if (!atom.isTypeChecked()
+                || atom.getParentPointer() != 0
+                || atom.getParameters().get(0).getType() != Atom.AtomType.STRING) {
+            return super.compile(atom, parameters);
+        }
+        // the literal name is resolved once
+        VariableSlot slot = VariableSlot.of(atom.getParameters().get(0).getId());
+        CompiledExpression varContext = parameters.length > 2 ? parameters[1] : null;
+        CompiledExpression varContent = parameters[parameters.length - 1];
+        return coachContext -> {
+            Atom context = varContext != null ? varContext.evaluate(coachContext) : null;
+            return set(slot.getName(), slot, context, varContent.evaluate(coachContext), coachContext);
+        };
+    }
+
+    /* sets a variable by its slot if resolved and by its name otherwise, in the context of the current question if no
+    context is given */
+    private static Atom set(
+            String name, VariableSlot slot, Atom varContext, Atom varContent, CoachContext coachContext)
+            throws ExecutorException {
+        if (varContext != null && varContext.getType() != Atom.AtomType.STRING && varContext != Atom.NULL_ATOM) {
+            throw invalidTypes();
+        }
+        String contextId;
+        if (varContext == null) {
+            contextId = coachContext.getQuestionContext().getId();
+        } else {
+            contextId = varContext == Atom.NULL_ATOM ? null : varContext.getId();
         }
 
         // set the score
-        coachContext
-                .getContext()
-                .setVariable(varName.getId(), varContent, varContext == Atom.NULL_ATOM ? null : varContext.getId());
-        coachContext
-                .getLogger()
-                .fine(String.format(
-                        "Set variable %s to %s in context %s",
-                        varName.getId(), varContent.getId(), varContent.getId()));
+        if (slot != null) {
+            coachContext.getContext().setVariable(slot, varContent, contextId);
+        } else {
+            coachContext.getContext().setVariable(name, varContent, contextId);
+        }
+        if (coachContext.getLogger().isLoggable(Level.FINE)) {
+            coachContext
+                    .getLogger()
+                    .fine(String.format(
+                            "Set variable %s to %s in context %s",
+                            name, varContent.getId(), varContent.getId()));
+        }
 
         return Atom.NULL_ATOM;
     }
+
+    private static ExecutorException invalidTypes() {
+        return new ExecutorException(
+                "Invalid types for parameters: Provide [0] String, [1] String and [2] ANY or [0] String and [2] ANY");
+    }
 }
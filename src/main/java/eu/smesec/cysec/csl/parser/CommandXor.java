@@ -86,6 +86,7 @@ import java.util.List;
  *     <h3>Notes</h3>
  *     <ul>
  *       <li>If no parameters are provided, the behavior is undefined and may result in an error.</li>
+ *       <li>Parameters are evaluated sequentially, and once a second `TRUE` is encountered, evaluation short-circuits (the remaining parameters are not evaluated).</li>
  *     </ul>
  *   </div>
  * </div>
@@ -93,13 +94,20 @@ import java.util.List;
 public class CommandXor extends CommandAbstractBoolOp {
 
     @Override
-    boolean evaluate(List<Boolean> list, ExecutorContext context) {
-        int ret = 0;
-        for (boolean b : list) {
-            if (b) {
-                ret++;
+    Atom decide(List<Atom> evaluated, boolean value) {
+        if (value) {
+            // a second TRUE decides the operation (the preceding parameters have been checked already)
+            for (int i = 0; i < evaluated.size() - 1; i++) {
+                if (evaluated.get(i).getBooleanValue()) {
+                    return Atom.FALSE;
+                }
             }
         }
-        return ret == 1;
+        return null;
+    }
+
+    @Override
+    boolean evaluate(int count, int trueCount, ExecutorContext context) {
+        return trueCount == 1;
     }
 }
@@ -0,0 +1,36 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+/**
+ * An expression compiled by {@link AstCompiler}.
+ */
+@FunctionalInterface
+public interface CompiledExpression {
+
+    /***
+     * <p>Evaluates the expression.</p>
+     *
+     * @param coachContext the context to evaluate the expression in
+     * @return the resulting atom (as returned by {@link Atom#execute(CoachContext)})
+     * @throws ExecutorException if a command fails
+     */
+    Atom evaluate(CoachContext coachContext) throws ExecutorException;
+}
@@ -0,0 +1,245 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import eu.smesec.cysec.platform.bridge.execptions.CacheException;
+import eu.smesec.cysec.platform.bridge.generated.Question;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.stream.IntStream;
+
+/**
+ * Dispatches the lines of a listing guarded by simple answer conditions.
+ * <p>Lines whose condition is <code>isSelected("option")</code> or <code>isAnswered("question")</code> are
+ * indexed by their question and option when the index is created, which is done once when the logic is loaded.
+ * Before a run, the answers of the indexed questions are looked up once and only the lines whose condition may
+ * hold are returned as candidates, together with all other lines. The candidates keep the order of the listing, so
+ * the first line of a name executed is the same as when evaluating all conditions.</p>
+ * <p>Candidates depend on the answers and on the visibility of questions, the candidates of a question must be
+ * determined again once the run has changed either (see {@link AnswerSnapshot#getChange(int)}).</p>
+ */
+public final class ConditionIndex {
+
+    private final List<CySeCLineAtom> listing;
+    private final CySeCLineAtom[] lines;
+    // lines which are not guarded by a simple answer condition
+    private final BitSet unguarded = new BitSet();
+    // question id -> lines guarded by a simple condition on the question
+    private final Map<String, Guards> guarded = new HashMap<>();
+
+    /***
+     * <p>Indexes the conditions of a listing.</p>
+     *
+     * @param listing the lines to index, the index keeps the lines as given
+     */
+    public ConditionIndex(List<CySeCLineAtom> listing) {
+        this.listing = listing;
+        lines = listing.toArray(new CySeCLineAtom[0]);
+        Map<String, Map<String, List<Integer>>> selectionLines = new HashMap<>();
+        Map<String, List<Integer>> answeredLines = new HashMap<>();
+        for (int i = 0; i < lines.length; i++) {
+            Atom cond = lines[i].getCond();
+            String argument = getLiteralArgument(cond);
+            Command command = cond.getCommand();
+            if (argument != null && command instanceof CommandIsSelected) {
+                Matcher match = CommandIsSelected.QUESTION_ID.matcher(argument);
+                if (match.find()) {
+                    selectionLines
+                            .computeIfAbsent(argument.substring(match.start(), match.end()), k -> new HashMap<>())
+                            .computeIfAbsent(argument, k -> new ArrayList<>())
+                            .add(i);
+                    continue;
+                }
+            } else if (argument != null && command instanceof CommandIsAnswered) {
+                answeredLines.computeIfAbsent(argument, k -> new ArrayList<>()).add(i);
+                continue;
+            }
+            unguarded.set(i);
+        }
+        Set<String> questionIds = new HashSet<>(selectionLines.keySet());
+        questionIds.addAll(answeredLines.keySet());
+        for (String questionId : questionIds) {
+            Map<String, int[]> options = new HashMap<>();
+            selectionLines
+                    .getOrDefault(questionId, Collections.emptyMap())
+                    .forEach((option, l) -> options.put(option, toArray(l)));
+            List<Integer> answeredPositions = answeredLines.getOrDefault(questionId, Collections.emptyList());
+            guarded.put(questionId, new Guards(options, toArray(answeredPositions)));
+        }
+    }
+
+    /***
+     * <p>Returns the lines of the listing.</p>
+     *
+     * @return the listing as given when creating the index
+     */
+    public List<CySeCLineAtom> getListing() {
+        return listing;
+    }
+
+    /***
+     * <p>Returns the number of lines of the listing.</p>
+     *
+     * @return the number of lines
+     */
+    public int size() {
+        return lines.length;
+    }
+
+    /***
+     * <p>Returns a line of the listing.</p>
+     *
+     * @param position the position of the line in the listing
+     * @return the line
+     */
+    public CySeCLineAtom getLine(int position) {
+        return lines[position];
+    }
+
+    /***
+     * <p>Determines the lines whose condition may hold for the current answers.</p>
+     *
+     * <p>Conditions of indexed questions which are unknown or whose answer cannot be loaded are left to be
+     * evaluated, so they report their failure as before.</p>
+     *
+     * @param coachContext the context of the run
+     * @return the positions of the lines whose condition has to be evaluated
+     */
+    public BitSet getCandidates(CoachContext coachContext) {
+        BitSet candidates = (BitSet) unguarded.clone();
+        for (Map.Entry<String, Guards> entry : guarded.entrySet()) {
+            addCandidates(candidates, entry.getKey(), entry.getValue(), coachContext);
+        }
+        return candidates;
+    }
+
+    /***
+     * <p>Determines the lines guarded by a question again, after its answer or visibility has changed.</p>
+     *
+     * @param candidates the candidates as returned by {@link #getCandidates(CoachContext)}, updated in place
+     * @param questionId the id of the changed question
+     * @param coachContext the context of the run
+     */
+    public void updateCandidates(BitSet candidates, String questionId, CoachContext coachContext) {
+        Guards guards = guarded.get(questionId);
+        if (guards != null) {
+            for (int position : guards.positions) {
+                candidates.clear(position);
+            }
+            addCandidates(candidates, questionId, guards, coachContext);
+        }
+    }
+
+    private static void addCandidates(BitSet candidates, String questionId, Guards guards, CoachContext coachContext) {
+        Question question = coachContext.getQuestionIndex().get(questionId);
+        if (question != null && question.isHidden()) {
+            return;
+        }
+        if (!guards.options.isEmpty()) {
+            Set<String> selected = null;
+            if (question != null) {
+                try {
+                    selected = coachContext.getAnswers().getSelectedOptions(questionId);
+                } catch (CacheException e) {
+                    // reported by isSelected
+                }
+            }
+            if (selected == null) {
+                guards.options.values().forEach(positions -> set(candidates, positions));
+            } else if (selected.size() < guards.options.size()) {
+                for (String option : selected) {
+                    set(candidates, guards.options.get(option));
+                }
+            } else {
+                for (Map.Entry<String, int[]> option : guards.options.entrySet()) {
+                    if (selected.contains(option.getKey())) {
+                        set(candidates, option.getValue());
+                    }
+                }
+            }
+        }
+        if (guards.answered.length > 0) {
+            boolean candidate = true;
+            if (question != null) {
+                try {
+                    candidate = coachContext.getAnswers().getAnswer(questionId) != null;
+                } catch (CacheException e) {
+                    // reported by isAnswered
+                }
+            }
+            if (candidate) {
+                set(candidates, guards.answered);
+            }
+        }
+    }
+
+    /* returns the argument of a call with a single string literal evaluated in its own context, or null */
+    private static String getLiteralArgument(Atom cond) {
+        if (cond.getType() != Atom.AtomType.METHODE || cond.getParentPointer() != 0) {
+            return null;
+        }
+        List<Atom> parameters = cond.getParameters();
+        if (parameters == null || parameters.size() != 1 || parameters.get(0).getType() != Atom.AtomType.STRING) {
+            return null;
+        }
+        return parameters.get(0).getId();
+    }
+
+    private static void set(BitSet candidates, int[] positions) {
+        if (positions != null) {
+            for (int position : positions) {
+                candidates.set(position);
+            }
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /* the lines guarded by a simple condition on a question */
+    private static final class Guards {
+        // option id -> positions of the lines guarded by isSelected(option)
+        private final Map<String, int[]> options;
+        // positions of the lines guarded by isAnswered(question)
+        private final int[] answered;
+        // all positions above
+        private final int[] positions;
+
+        private Guards(Map<String, int[]> options, int[] answered) {
+            this.options = options;
+            this.answered = answered;
+            this.positions = IntStream.concat(
+                            options.values().stream().flatMapToInt(IntStream::of), IntStream.of(answered))
+                    .toArray();
+        }
+    }
+}
@@ -27,8 +27,11 @@ import eu.smesec.cysec.csl.skills.BadgeFactory.Badge;
 import eu.smesec.cysec.csl.skills.RecommendationEventListener;
 import eu.smesec.cysec.csl.skills.RecommendationFactory;
 import eu.smesec.cysec.csl.skills.ScoreFactory;
+import eu.smesec.cysec.csl.skills.ScoreRollup;
+import eu.smesec.cysec.platform.bridge.FQCN;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -37,8 +40,17 @@ import java.util.stream.Stream;
 public class CySeCExecutorContextFactory {
 
     private static class Variable {
-        private Map<String, Atom> var = new HashMap<>();
-        private Atom lastval = null;
+        private final String name;
+        // system variables are set from outside and kept when the logic of a question is run again
+        private final boolean system;
+        // read without holding the variables lock of the context when looked up by slot
+        private final Map<String, Atom> var = new ConcurrentHashMap<>();
+        private volatile Atom lastval = null;
+
+        Variable(String name) {
+            this.name = name;
+            this.system = name.startsWith("__SYSTEM");
+        }
 
         public Atom setVariable(String context, Atom value) {
             Atom ret = getVariable(context);
@@ -50,7 +62,8 @@ public class CySeCExecutorContextFactory {
         }
 
         public Atom getVariable(String context) {
-            return var.get(context) == null ? lastval : var.get(context);
+            Atom value = context == null ? null : var.get(context);
+            return value == null ? lastval : value;
         }
 
         public Collection<Atom> getAll() {
@@ -71,7 +84,16 @@ public class CySeCExecutorContextFactory {
         private Logger logger = Logger.getLogger((new Throwable()).getStackTrace()[0].getClassName());
         private ScoreFactory scores = new ScoreFactory();
         private final Object executorLock = new Object();
-        private Map<String, Variable> variables = new HashMap<>();
+        // all variables of the context by name
+        private final Map<String, Variable> variablesByName = new HashMap<>();
+        // variables looked up by slot (see VariableSlot), null where not looked up by slot yet; read without lock,
+        // changed under the variables lock
+        private volatile Variable[] variables = new Variable[0];
+        // question context -> variables holding a value in that context, system variables excluded
+        private final Map<String, List<Variable>> variablesByContext = new HashMap<>();
+        // variables holding a last value, system variables excluded
+        private final List<Variable> variablesWithLastValue = new ArrayList<>();
+        private final Object variablesLock = new Object();
         private ExecutorContext parent = null;
         private RecommendationFactory recommendations = new RecommendationFactory();
         private BadgeFactory badges = new BadgeFactory();
@@ -79,6 +101,7 @@ public class CySeCExecutorContextFactory {
         private Map<String, Map<String, Atom>> subcoachVariableCache = new HashMap<>();
         private Map<String, List<String>> subcoachActiveQuestionsCache = new HashMap<>();
         private Map<String, RecommendationFactory> subcoachRecommendationsCache = new HashMap<>();
+        private final ScoreRollup subcoachScores = new ScoreRollup();
         private String activeInstance;
 
         public CySeCExecutorContext(String contextId, Logger log) {
@@ -89,12 +112,15 @@ public class CySeCExecutorContextFactory {
         }
 
         public void printVariables(Logger logger) {
-            variables.forEach((key, value) -> logger.fine(
-                    String.format("%s : %s", key, Arrays.toString(value.getAll().toArray()))));
+            synchronized (variablesLock) {
+                for (Variable variable : variablesByName.values()) {
+                    logger.fine(String.format("%s : %s", variable.name, Arrays.toString(variable.getAll().toArray())));
+                }
+            }
         }
 
         public void reset() {
-            variables.clear();
+            clearVariables();
             executedNames.clear();
             scores.reset();
             badges.reset();
@@ -102,6 +128,7 @@ public class CySeCExecutorContextFactory {
             // contextMap.clear();
         }
 
+
         public ScoreFactory.Score getScore(String scoreId) {
             return scores.getIntScore(scoreId);
         }
@@ -231,78 +258,226 @@ public class CySeCExecutorContextFactory {
         }
 
         public void revertQuestionScore(String questionId) {
-            for (ScoreFactory.Score s : scores.getScoreList(true)) {
-                s.revertQuestion(questionId);
-            }
+            scores.revertQuestion(questionId);
         }
 
         @Override
         public Atom getVariable(String name, String context) {
-            synchronized (variables) {
-                return variables.get(name) == null
-                        ? NULL_ATOM
-                        : variables.get(name).getVariable(context);
+            synchronized (variablesLock) {
+                Variable variable = getVariable(name, null, false);
+                return variable == null ? NULL_ATOM : variable.getVariable(context);
+            }
+        }
+
+        @Override
+        public Atom getVariable(VariableSlot slot, String context) {
+            // a variable once assigned to a slot stays there until the variables are cleared
+            Variable[] slots = variables;
+            Variable variable = slot.getIndex() < slots.length ? slots[slot.getIndex()] : null;
+            if (variable != null) {
+                return variable.getVariable(context);
             }
+            synchronized (variablesLock) {
+                variable = getVariable(slot.getName(), slot, false);
+                return variable == null ? NULL_ATOM : variable.getVariable(context);
+            }
+        }
+
+        /* looks up a variable by slot if given and by name otherwise, remembering it in the slot */
+        private Variable getVariable(String name, VariableSlot slot, boolean create) {
+            Variable variable = slot != null && slot.getIndex() < variables.length ? variables[slot.getIndex()] : null;
+            if (variable != null) {
+                return variable;
+            }
+            variable = variablesByName.get(name);
+            if (variable == null) {
+                if (!create) {
+                    return null;
+                }
+                variable = new Variable(name);
+                variablesByName.put(name, variable);
+            }
+            if (slot != null) {
+                int index = slot.getIndex();
+                Variable[] slots = variables;
+                if (index >= slots.length) {
+                    slots = Arrays.copyOf(slots, Math.max(index + 1, slots.length * 2));
+                }
+                slots[index] = variable;
+                variables = slots;
+            }
+            return variable;
         }
 
         @Override
         public Map<String, Atom> getVariables(String context) {
-            synchronized (variables) {
-                return variables.entrySet().stream()
-                        .filter(kv -> kv.getValue().getVariable(context) != null)
-                        .collect(Collectors.toMap(
-                                kv -> kv.getKey(), kv -> kv.getValue().getVariable(context)));
+            synchronized (variablesLock) {
+                Map<String, Atom> ret = new HashMap<>();
+                for (Variable variable : variablesByName.values()) {
+                    if (variable.getVariable(context) != null) {
+                        ret.put(variable.name, variable.getVariable(context));
+                    }
+                }
+                return ret;
             }
         }
 
         @Override
         public Atom setVariable(String name, Atom value, String context) {
-            synchronized (variables) {
-                if (variables.get(name) == null) {
-                    variables.put(name, new Variable());
-                }
+            return setVariable(name, null, value, context);
+        }
+
+        @Override
+        public Atom setVariable(VariableSlot slot, Atom value, String context) {
+            return setVariable(slot.getName(), slot, value, context);
+        }
+
+        private Atom setVariable(String name, VariableSlot slot, Atom value, String context) {
+            synchronized (variablesLock) {
                 if (value == null) {
                     value = NULL_ATOM;
                 }
-                Atom ret = getVariable(name, context);
-                variables.get(name).setVariable(context, value);
+                Variable variable = getVariable(name, slot, true);
+                Atom ret = variable.getVariable(context);
+                if (!variable.system) {
+                    if (variable.lastval == null) {
+                        variablesWithLastValue.add(variable);
+                    }
+                    if (context != null && !variable.var.containsKey(context)) {
+                        variablesByContext
+                                .computeIfAbsent(context, c -> new ArrayList<>())
+                                .add(variable);
+                    }
+                }
+                variable.setVariable(context, value);
                 return ret;
             }
         }
 
         @Override
         public void clearVariables() {
-            variables.clear();
+            synchronized (variablesLock) {
+                variablesByName.clear();
+                Arrays.fill(variables, null);
+                variablesByContext.clear();
+                variablesWithLastValue.clear();
+            }
         }
 
         @Override
         public int executeQuestion(List<CySeCLineAtom> atomList, CoachContext coachContext) throws ExecutorException {
             CySeCExecutorContext ec = (CySeCExecutorContext) (coachContext.getContext());
             synchronized (ec.executorLock) {
-                ec.executedNames.clear();
-                ec.scores.revertQuestion(coachContext.getQuestionContext().getId());
+                Map<ExecutorContext, Map<String, Double>> before = ec.revertQuestion(coachContext);
+                try {
+                    return ec.execute(atomList, coachContext);
+                } finally {
+                    ec.publishScores(before, coachContext);
+                }
+            }
+        }
 
-                // this should clear previously set variables from that question
-                // ec.variables.remove(coachContext.getQuestionContext().getId());
-                for (Map.Entry<String, Variable> variable : ec.variables.entrySet()) {
-                    // Make sure system variables are not cleared since they are being set from outside
-                    if (variable.getKey().startsWith("__SYSTEM")) continue;
+        /**
+         * Executes the logic of a question given as consecutive listings (e.g. the pre-question, question and
+         * post-question logic) as if it was a single listing.
+         *
+         * <p>Only the lines returned by {@link ConditionIndex#getCandidates(CoachContext)} are evaluated, the
+         * candidates of a question are determined again whenever a line has changed its answer or visibility.</p>
+         *
+         * @param listings the indexed listings to execute in order
+         * @param coachContext the context of the run
+         * @return the number of lines executed
+         * @throws ExecutorException if any line has failed
+         */
+        public int executeIndexedQuestion(List<ConditionIndex> listings, CoachContext coachContext)
+                throws ExecutorException {
+            CySeCExecutorContext ec = (CySeCExecutorContext) (coachContext.getContext());
+            synchronized (ec.executorLock) {
+                Map<ExecutorContext, Map<String, Double>> before = ec.revertQuestion(coachContext);
+                try {
+                    return ec.executeIndexed(listings, coachContext);
+                } finally {
+                    ec.publishScores(before, coachContext);
+                }
+            }
+        }
 
-                    variable.getValue().var.remove(coachContext.getQuestionContext().getId());
-                    variable.getValue().lastval = null;
+        /**
+         * Reverts the contributions and variables of a question before it is run again.
+         *
+         * @param coachContext the context of the run
+         * @return the contributions of the question to the scores of each ancestor before they have been reverted
+         */
+        private Map<ExecutorContext, Map<String, Double>> revertQuestion(CoachContext coachContext) {
+            executedNames.clear();
+            scores.revertQuestion(coachContext.getScoreQuestionId());
+
+            // this should clear previously set variables from that question
+            // only the variables set in the context of the question or holding a last value are visited, system
+            // variables are not indexed as they are being set from outside and must not be cleared
+            synchronized (variablesLock) {
+                List<Variable> questionVariables =
+                        variablesByContext.remove(coachContext.getQuestionContext().getId());
+                if (questionVariables != null) {
+                    for (Variable variable : questionVariables) {
+                        variable.var.remove(coachContext.getQuestionContext().getId());
+                    }
+                }
+                for (Variable variable : variablesWithLastValue) {
+                    variable.lastval = null;
                 }
+                variablesWithLastValue.clear();
+            }
 
-                //
-                if (ec.getParent() != null) {
-                    // One idea could be adding the subcoach id as a prefix when adding to a parent
-                    // context
-                    ((CySeCExecutorContext) (ec.getParent()))
-                            .scores.revertQuestion(
-                                    coachContext.getQuestionContext().getId());
-                    // todo clear variables from this question too
-                    // todo clear executedNames
+            // subcoach logic may add to the scores of its ancestors (see parent pointers), these contributions are
+            // kept apart per subcoach instance by the score question id
+            Map<ExecutorContext, Map<String, Double>> before = new IdentityHashMap<>();
+            for (ExecutorContext ancestor = getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+                ScoreFactory ancestorScores = ((CySeCExecutorContext) ancestor).scores;
+                before.put(ancestor, ancestorScores.getQuestionValues(coachContext.getScoreQuestionId()));
+                ancestorScores.revertQuestion(coachContext.getScoreQuestionId());
+                // todo clear variables from this question too
+                // todo clear executedNames
+            }
+            return before;
+        }
+
+        /**
+         * Publishes the changes of the contributions of a run of a subcoach question to the score roll-ups of all
+         * ancestors.
+         *
+         * <p>All instances of a subcoach share its context, but their contributions are kept apart by the score
+         * question id (see {@link CoachContext#getScoreQuestionId()}), so the changes of a run belong to the instance
+         * the question has been run for. The deltas are taken from the scores of each ancestor, so its roll-up always
+         * breaks down exactly the values its scores hold.</p>
+         *
+         * @param before the contributions of the question to the scores of each ancestor before the run
+         * @param coachContext the context of the run
+         */
+        private void publishScores(Map<ExecutorContext, Map<String, Double>> before, CoachContext coachContext) {
+            FQCN fqcn = coachContext.getFqcn();
+            if (fqcn == null || fqcn.isTopLevel()) {
+                return;
+            }
+            for (Map.Entry<ExecutorContext, Map<String, Double>> ancestor : before.entrySet()) {
+                Map<String, Double> previous = ancestor.getValue();
+                Map<String, Double> current = ((CySeCExecutorContext) ancestor.getKey()).scores
+                        .getQuestionValues(coachContext.getScoreQuestionId());
+                Map<String, Double> deltas = new HashMap<>();
+                for (Map.Entry<String, Double> score : current.entrySet()) {
+                    double delta = score.getValue() - previous.getOrDefault(score.getKey(), 0d);
+                    if (delta != 0) {
+                        deltas.put(score.getKey(), delta);
+                    }
+                }
+                for (Map.Entry<String, Double> score : previous.entrySet()) {
+                    if (!current.containsKey(score.getKey())) {
+                        deltas.put(score.getKey(), -score.getValue());
+                    }
+                }
+                if (!deltas.isEmpty()) {
+                    ancestor.getKey().updateSubcoachScores(fqcn.getCoachId(), fqcn.getName(), deltas);
                 }
-                return ec.execute(atomList, coachContext);
             }
         }
 
@@ -325,15 +500,11 @@ public class CySeCExecutorContextFactory {
                 ExecutorException retException = null;
                 for (CySeCLineAtom la : atomList) {
                     try {
-                        Atom condResult = la.getCond().execute(coachContext);
-                        if (condResult.isTrue(coachContext) && !executedNames.contains(la.getName())) {
-                            la.execute(coachContext);
+                        if (executeLine(la, coachContext)) {
                             ret++;
-                            executedNames.add(la.getName());
                         }
                     } catch (ExecutorException ee) {
-                        logger.log(Level.WARNING, "Exception during execution of " + la.getCond(), ee);
-                        retException = new ExecutorException(ee.getReason(), retException);
+                        retException = failed(la, ee, retException);
                     }
                 }
                 if (retException != null) {
@@ -343,6 +514,58 @@ public class CySeCExecutorContextFactory {
             }
         }
 
+        private int executeIndexed(List<ConditionIndex> listings, CoachContext coachContext)
+                throws ExecutorException {
+            synchronized (executorLock) {
+                int ret = 0;
+                executedNames.clear();
+                ExecutorException retException = null;
+                AnswerSnapshot answers = coachContext.getAnswers();
+                for (ConditionIndex listing : listings) {
+                    int version = answers.getVersion();
+                    BitSet candidates = listing.getCandidates(coachContext);
+                    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                        CySeCLineAtom la = listing.getLine(i);
+                        try {
+                            if (executeLine(la, coachContext)) {
+                                ret++;
+                            }
+                        } catch (ExecutorException ee) {
+                            retException = failed(la, ee, retException);
+                        }
+                        // the line may have changed answers or the visibility of questions
+                        for (; version < answers.getVersion(); version++) {
+                            listing.updateCandidates(candidates, answers.getChange(version), coachContext);
+                        }
+                    }
+                }
+                if (retException != null) {
+                    throw retException;
+                }
+                return ret;
+            }
+        }
+
+        /* executes the statements of a line if its condition holds and its name has not been executed yet */
+        private boolean executeLine(CySeCLineAtom la, CoachContext coachContext) throws ExecutorException {
+            Atom condResult = la.evaluateCondition(coachContext);
+            if (condResult.isTrue(coachContext) && !executedNames.contains(la.getName())) {
+                la.execute(coachContext);
+                executedNames.add(la.getName());
+                return true;
+            }
+            return false;
+        }
+
+        private ExecutorException failed(CySeCLineAtom la, ExecutorException ee, ExecutorException retException) {
+            String location = la.getLocation();
+            logger.log(
+                    Level.WARNING,
+                    "Exception during execution of " + la.getCond() + (location != null ? " (" + location + ")" : ""),
+                    ee);
+            return new ExecutorException(ee.getReason(), retException);
+        }
+
         @Override
         public void updateSubcoachVariablesCache(String coachId, String instanceName, Map<String, Atom> variables) {
             subcoachVariableCache.put(coachId + "." + instanceName, variables);
@@ -364,6 +587,29 @@ public class CySeCExecutorContextFactory {
             return subcoachActiveQuestionsCache;
         }
 
+        @Override
+        public void updateSubcoachScores(String coachId, String instanceName, Map<String, Double> deltas) {
+            subcoachScores.add(coachId + "." + instanceName, deltas);
+        }
+
+        @Override
+        public void removeSubcoachScores(String coachId, String instanceName) {
+            String instance = coachId + "." + instanceName;
+            // the contributions of the instance are kept under its qualified question ids (see
+            // CoachContext#getScoreQuestionId()), in the scores of the subcoach and of its ancestors
+            String questionPrefix = instance + ".";
+            getExecutorContext(coachId).scores.revertQuestions(questionPrefix);
+            for (ExecutorContext context = this; context != null; context = context.getParent()) {
+                context.getSubcoachScores().remove(instance);
+                ((CySeCExecutorContext) context).scores.revertQuestions(questionPrefix);
+            }
+        }
+
+        @Override
+        public ScoreRollup getSubcoachScores() {
+            return subcoachScores;
+        }
+
         public void setActiveInstance(String activeInstance) {
             this.activeInstance = activeInstance;
         }
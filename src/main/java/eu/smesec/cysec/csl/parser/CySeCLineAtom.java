@@ -21,7 +21,6 @@ package eu.smesec.cysec.csl.parser;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Vector;
 
 public class CySeCLineAtom {
 
@@ -29,6 +28,10 @@ public class CySeCLineAtom {
     String name;
     Atom[] statements;
 
+    /* compiled forms of the condition and the statements, set once the line has been compiled */
+    private volatile CompiledExpression compiledCond = null;
+    private CompiledExpression[] compiledStatements = null;
+
     public CySeCLineAtom(Atom cond, String name, Atom[] a) {
         this.cond = cond;
         this.name = name;
@@ -43,13 +46,61 @@ public class CySeCLineAtom {
         return name;
     }
 
+    /***
+     * <p>Returns the location of the line in its source for diagnostics.</p>
+     *
+     * @return the location as "line L, column C", or null if the line has not been parsed
+     */
+    public String getLocation() {
+        return cond.getLocation();
+    }
+
     public List<Atom> getStatements() {
         return Arrays.asList(statements);
     }
 
+    /***
+     * <p>Compiles the condition and the statements of the line (see {@link AstCompiler}).</p>
+     *
+     * <p>Compiled lines are evaluated by running their compiled forms instead of interpreting the atoms.</p>
+     */
+    public void compile() {
+        if (compiledCond == null) {
+            CompiledExpression[] compiled = new CompiledExpression[statements.length];
+            for (int i = 0; i < compiled.length; i++) {
+                compiled[i] = AstCompiler.compile(statements[i]);
+            }
+            compiledStatements = compiled;
+            // written last, publishes the statements
+            compiledCond = AstCompiler.compile(cond);
+        }
+    }
+
+    public boolean isCompiled() {
+        return compiledCond != null;
+    }
+
+    /***
+     * <p>Evaluates the condition of the line.</p>
+     *
+     * @param coachContext the context of the evaluation
+     * @return the result of the condition
+     * @throws ExecutorException if the condition fails
+     */
+    public Atom evaluateCondition(CoachContext coachContext) throws ExecutorException {
+        CompiledExpression compiled = compiledCond;
+        return compiled != null ? compiled.evaluate(coachContext) : cond.execute(coachContext);
+    }
+
     public Atom execute(CoachContext coachContext) throws ExecutorException {
-        Atom lastResult = new Atom(Atom.AtomType.BOOL, "TRUE", new Vector<>());
-        for (Atom a : getStatements()) {
+        Atom lastResult = Atom.TRUE;
+        if (compiledCond != null) {
+            for (CompiledExpression statement : compiledStatements) {
+                lastResult = statement.evaluate(coachContext);
+            }
+            return lastResult;
+        }
+        for (Atom a : statements) {
             lastResult = a.execute(coachContext);
         }
         return lastResult;
@@ -0,0 +1,166 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evaluates atoms without recursion.
+ * <p>Parameters that have to be normalized before a command is executed are evaluated using an
+ * explicit stack of pending commands, up to a short circuit of the command (see
+ * {@link Command#getShortCircuitResult(List, CoachContext)}). Commands that evaluate to one of their parameters (see
+ * {@link Command#getTailParameter(List, CoachContext)}) are replaced by that parameter on the same
+ * stack. Deeply nested expressions are therefore limited by the heap and not by the Java stack.</p>
+ * <p>Every thread has an evaluator of its own, whose frames and arguments (see {@link ArgumentStack})
+ * are reused, so evaluating an expression does not allocate per command.</p>
+ */
+final class Evaluator {
+
+    private static final ThreadLocal<Evaluator> EVALUATORS = ThreadLocal.withInitial(Evaluator::new);
+
+    private final ArgumentStack arguments = ArgumentStack.get();
+    private Frame[] frames = new Frame[8];
+    private int depth = 0;
+
+    private Evaluator() {}
+
+    /***
+     * <p>Evaluates an atom.</p>
+     *
+     * @param root         the atom to evaluate
+     * @param coachContext the context to evaluate the atom in
+     * @return the resulting atom
+     * @throws ExecutorException if a command fails
+     */
+    static Atom evaluate(Atom root, CoachContext coachContext) throws ExecutorException {
+        if (root.getType() != Atom.AtomType.METHODE) {
+            return root;
+        }
+        // commands may evaluate atoms themselves, such evaluations continue on top of the current one
+        return EVALUATORS.get().run(root, coachContext);
+    }
+
+    private Atom run(Atom root, CoachContext coachContext) throws ExecutorException {
+        int base = depth;
+        try {
+            Frame frame = push(root, coachContext, false);
+            while (true) {
+                // collect the parameters, descending into those that have to be normalized first
+                List<Atom> parameters = frame.atom.getParameters();
+                int index = frame.arguments.size();
+                Atom result = null;
+                if (index > 0 && frame.command.isShortCircuit()) {
+                    // the parameters collected so far may decide the command
+                    result = frame.command.getShortCircuitResult(frame.arguments, frame.coachContext);
+                }
+                if (result == null) {
+                    if (index < parameters.size()) {
+                        Atom parameter = parameters.get(index);
+                        if (parameter.getType() == Atom.AtomType.METHODE && frame.command.isEagerParameter(index)) {
+                            frame = push(parameter, frame.coachContext, false);
+                        } else {
+                            frame.arguments.push(parameter);
+                        }
+                        continue;
+                    }
+
+                    // all parameters are collected: continue with the selected parameter or execute the command
+                    Atom tail = frame.command.getTailParameter(frame.arguments, frame.coachContext);
+                    if (tail != null && tail.getType() == Atom.AtomType.METHODE) {
+                        CoachContext cc = frame.coachContext;
+                        if (cc.getContext() != frame.context) {
+                            cc = cc.copy();
+                            cc.setContext(frame.context);
+                        }
+                        pop();
+                        frame = push(tail, cc, true);
+                        continue;
+                    } else if (tail != null) {
+                        result = tail;
+                    } else {
+                        result = frame.command.execute(
+                                frame.arguments, frame.coachContext, frame.context, frame.atom.isTypeChecked());
+                        if (result == null && frame.falseIfNull) {
+                            result = Atom.FALSE;
+                        }
+                    }
+                }
+
+                // hand the result to the pending command
+                pop();
+                if (depth == base) {
+                    return result;
+                }
+                frame = frames[depth - 1];
+                frame.arguments.push(result);
+            }
+        } finally {
+            // unwind the frames left by a failing command
+            while (depth > base) {
+                pop();
+            }
+        }
+    }
+
+    private Frame push(Atom atom, CoachContext coachContext, boolean falseIfNull) throws ExecutorException {
+        Command command = atom.getCommand();
+        if (command == null) {
+            throw new ExecutorException("Found unknown methode \"" + atom.getId() + "\"");
+        }
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+        }
+        Frame frame = frames[depth];
+        if (frame == null) {
+            frame = new Frame();
+            frames[depth] = frame;
+        }
+        frame.atom = atom;
+        frame.command = command;
+        frame.coachContext = coachContext;
+        frame.context = atom.getExecutorContext(coachContext);
+        frame.arguments = arguments.open();
+        frame.falseIfNull = falseIfNull;
+        depth++;
+        return frame;
+    }
+
+    private void pop() {
+        Frame frame = frames[--depth];
+        frame.arguments.release();
+        frame.atom = null;
+        frame.command = null;
+        frame.coachContext = null;
+        frame.context = null;
+        frame.arguments = null;
+    }
+
+    /* a command waiting for its parameters */
+    private static final class Frame {
+        private Atom atom;
+        private Command command;
+        private CoachContext coachContext;
+        private ExecutorContext context;
+        private ArgumentFrame arguments;
+        // set if the atom is evaluated in place of a command which reports a missing result as FALSE
+        private boolean falseIfNull;
+    }
+}
@@ -20,6 +20,7 @@
 package eu.smesec.cysec.csl.parser;
 
 import eu.smesec.cysec.csl.skills.ScoreFactory;
+import eu.smesec.cysec.csl.skills.ScoreRollup;
 import java.util.List;
 import java.util.Map;
 
@@ -58,6 +59,11 @@ public interface ExecutorContext {
     /***
      * <p>Reset all contributions of a question in all scores.</p>
      *
+     * <p>Subcoach questions contribute under their id qualified with the subcoach instance
+     * (<code>coachId.instanceName.questionId</code>, see {@link CoachContext#getScoreQuestionId()}), to the scores of
+     * the subcoach and, through parent pointers, of its ancestors. Their contributions are only reverted by the
+     * qualified id.</p>
+     *
      * @param questionId the ID to be reverted in all scores
      */
     void revertQuestionScore(String questionId);
@@ -70,6 +76,16 @@ public interface ExecutorContext {
      */
     Atom getVariable(String name, String context);
 
+    /***
+     * <p>get a variable content by its slot.</p>
+     * @param slot the resolved name of the variable
+     * @param context a context for the variable (if null the content of the last set variable is returned)
+     * @return the variable content
+     */
+    default Atom getVariable(VariableSlot slot, String context) {
+        return getVariable(slot.getName(), context);
+    }
+
     /**
      * <p>get all variables.</p>
      * @param context a context for the variable
@@ -86,6 +102,17 @@ public interface ExecutorContext {
      */
     Atom setVariable(String name, Atom value, String context);
 
+    /***
+     * <p>Set a variable content by its slot.</p>
+     * @param slot the resolved name of the variable
+     * @param value the value of the variable
+     * @param context the context of the variable may be null
+     * @return the previous value of the variable
+     */
+    default Atom setVariable(VariableSlot slot, Atom value, String context) {
+        return setVariable(slot.getName(), value, context);
+    }
+
     /**
      * Clears variables of the executor context.
      */
@@ -158,4 +185,29 @@ public interface ExecutorContext {
      * @return subcoach active questions cache
      */
     Map<String, List<String>> getSubcoachActiveQuestionsCache();
+
+    /**
+     * Adds the changes of the contributions of a subcoach instance to the scores of this context to the score
+     * roll-up of this context. Subcoach contexts publish these deltas to their ancestors after each run of a
+     * question (see {@link ScoreRollup}).
+     * @param coachId The ID of the subcoach
+     * @param instanceName The instance name of the subcoach
+     * @param deltas The score ids mapped to the change of their value
+     */
+    void updateSubcoachScores(String coachId, String instanceName, Map<String, Double> deltas);
+
+    /**
+     * Removes the contribution of a subcoach instance from the score roll-up of this context and its ancestors.
+     * The contributions of the instance to the scores of the subcoach and of these contexts are reverted as well,
+     * so a new instance of the same name starts from nothing.
+     * @param coachId The ID of the subcoach
+     * @param instanceName The instance name of the subcoach
+     */
+    void removeSubcoachScores(String coachId, String instanceName);
+
+    /**
+     * Returns the contributions of the subcoach instances to the scores of this context.
+     * @return the score roll-up
+     */
+    ScoreRollup getSubcoachScores();
 }
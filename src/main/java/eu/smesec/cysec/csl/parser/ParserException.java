@@ -49,6 +49,15 @@ public class ParserException extends IOException {
         return line;
     }
 
+    /***
+     * <p>Returns the reason without the context of the parser line.</p>
+     *
+     * @return the reason given when throwing the exception
+     */
+    public String getReason() {
+        return reason;
+    }
+
     public String toString() {
         return "Parser throws exception: " + reason + (line != null ? " (" + line.getContext() + ")" : "");
     }
@@ -19,41 +19,57 @@
  */
 package eu.smesec.cysec.csl.parser;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Vector;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class ParserLine {
 
     /***
      * <p>A micro parser/scanner.</p>
+     *
+     * <p>The scanner walks the source with an index cursor. Nothing is cut off the source while
+     * reading, so scanning is linear in the size of the source and peeking at a character does not
+     * allocate.</p>
      */
     /* specifies the context range which is given when an exception arises during scanning */
     private static final int MAX_CONTEXT = 30;
 
+    /* the character returned by peek operations when reading beyond the end of the source */
+    public static final char EOF = '\uFFFF';
+
     /* These are character subsets specified in RFC3501 */
-    private static final String ABNF_SP = " \t\r\n";
-    private static final String ABNF_ATOM_SPECIALS = charlistBuilder(0, 31);
-    private static final String ABNF_QUOTED_SPECIALS = "\"\\";
-    private static final String ABNF_ATOM_CHAR = charlistDifferencer(charlistBuilder(1, 127), ABNF_ATOM_SPECIALS);
-    private static final String ABNF_TEXT_CHAR = charlistDifferencer(charlistBuilder(1, 255), "\r\n");
-    private static final String ABNF_QUOTED_CHAR = charlistDifferencer(ABNF_TEXT_CHAR, ABNF_QUOTED_SPECIALS);
-    private static final String ABNF_TAG = charlistDifferencer(
-            charlistDifferencer(
-                    charlistDifferencer(charlistBuilder(48, 122), charlistBuilder(58, 64)), charlistBuilder(91, 94)),
-            charlistBuilder(96, 96));
+    private static final CharClass ABNF_SP = CharClass.of(" \t\r\n");
+    private static final CharClass ABNF_ATOM_SPECIALS = CharClass.range(0, 31);
+    private static final CharClass ABNF_QUOTED_SPECIALS = CharClass.of("\"\\");
+    private static final CharClass ABNF_ATOM_CHAR = CharClass.range(1, 127).minus(ABNF_ATOM_SPECIALS);
+    private static final CharClass ABNF_TEXT_CHAR = CharClass.range(1, 255).minus(CharClass.of("\r\n"));
+    private static final CharClass ABNF_QUOTED_CHAR = ABNF_TEXT_CHAR.minus(ABNF_QUOTED_SPECIALS);
+    private static final CharClass ABNF_TAG = CharClass.range(48, 122)
+            .minus(CharClass.range(58, 64))
+            .minus(CharClass.range(91, 94))
+            .minus(CharClass.range(96, 96));
+
+    /* the decimal digits */
+    private static final CharClass DIGIT = CharClass.range('0', '9');
+
+    /* the characters a numerical atom may start with */
+    private static final CharClass NUMERICAL_START = CharClass.of("-+.").union(DIGIT);
 
     /* a Logger  for logging purposes */
     private static final Logger LOGGER = Logger.getLogger((new Throwable()).getStackTrace()[0].getClassName());
 
-    /* this holds the past context for the case that an exception is risen */
-    private String context = "";
+    /* this is the complete source handed to the parser */
+    private final String source;
+
+    /* the source as referenced by the positions of the parsed atoms */
+    private final SourceText sourceText;
 
-    /* this is the buffer of read but unprocessed characters */
-    private String buffer;
+    /* this is the position of the first read but unprocessed character within the source */
+    private int pos = 0;
 
     /***
      * <p>Creates a parser line object with a parser for a command.</p>
@@ -66,14 +82,14 @@ public class ParserLine {
      * @throws ParserException if reading fails
      */
     public ParserLine(String line) throws ParserException {
-        this.buffer = line;
-
         // check if nothing at all (no even an empty line) has been passed
-        if (this.buffer == null) {
+        if (line == null) {
+            this.source = "";
+            this.sourceText = new SourceText(source);
             throw new ParserNullLineException(this);
         }
-
-        prepareStorage(line);
+        this.source = line;
+        this.sourceText = new SourceText(line);
 
         checkEmptyLine();
     }
@@ -87,7 +103,9 @@ public class ParserLine {
      * @param start The first ASCII code to be used
      * @param end   The last ASCII code to be used
      * @return the generated character list
+     * @deprecated the scanner uses {@link CharClass#range(int, int)}
      */
+    @Deprecated
     public static String charlistBuilder(int start, int end) {
         // reject chain building if start is not within 0..255
         if (start < 0 || start > 255) {
@@ -118,7 +136,9 @@ public class ParserLine {
      * @param superset    the set where character should be removed from
      * @param subset      the set of characters to be removed
      * @return the difference of the two given charsets
+     * @deprecated the scanner uses {@link CharClass#minus(CharClass)}
      */
+    @Deprecated
     public static String charlistDifferencer(String superset, String subset) {
         String ret = superset;
         for (int i = 0; i < subset.length(); i++) {
@@ -128,43 +148,82 @@ public class ParserLine {
         return ret;
     }
 
-    private void prepareStorage(String line) throws ParserException {
-        // make sure that a line is never null when reaching the parsing section
-        if (buffer == null) {
-            buffer = "";
-            if (snoopBytes(1) == null) {
-                throw new ParserBlankLineException(this);
-            }
-        }
-    }
-
     private void checkEmptyLine() throws ParserException {
-        if ("\r\n".equals(snoopBytes(2)) || "".equals(snoopBytes(1)) || snoopBytes(1) == null) {
-            if ("\r\n".equals(snoopBytes(2))) {
-                skipUntilLineEnd();
-                throw new ParserBlankLineException(this);
-            }
+        if (lookingAt("\r\n")) {
+            skipUntilLineEnd();
+            throw new ParserBlankLineException(this);
+        }
+        if (!hasMore()) {
             throw new ParserNullLineException(this);
         }
     }
 
     /***
-     * <p>Returns true if escaped quotes are present at the current position.</p>
+     * <p>Returns true if unprocessed characters are left in the source.</p>
      *
-     * @return true if escaped quotes are present
+     * @return true if at least one more character may be read
      */
-    public boolean snoopEscQuotes() {
-        return "\\".contains(snoopBytes(1))
-                && snoopBytes(2).length() == 2
-                && ABNF_QUOTED_SPECIALS.contains(snoopBytes(2).substring(1, 2));
+    public boolean hasMore() {
+        return pos < source.length();
     }
 
-    private boolean readBuffer(long num) {
-        // make sure that we have sufficient bytes in the buffer
+    /***
+     * <p>Get the character at the current position without moving.</p>
+     *
+     * @return the character or {@link #EOF} if the source is exhausted
+     */
+    public char peek() {
+        return pos < source.length() ? source.charAt(pos) : EOF;
+    }
+
+    /***
+     * <p>Get the character at the given offset from the current position without moving.</p>
+     *
+     * @param offset the number of characters to look ahead
+     * @return the character or {@link #EOF} if the offset lies beyond the source
+     */
+    public char peek(int offset) {
+        int i = pos + offset;
+        return i >= 0 && i < source.length() ? source.charAt(i) : EOF;
+    }
 
-        // we have no additional source to read from
+    /***
+     * <p>Returns true if the unprocessed characters start with the given token.</p>
+     *
+     * @param token the token to be compared
+     * @return true if the token is found at the current position
+     */
+    public boolean lookingAt(String token) {
+        return source.startsWith(token, pos);
+    }
 
-        return num <= buffer.length();
+    /***
+     * <p>Moves the current position by the specified number of characters.</p>
+     *
+     * <p>The position never moves beyond the end of the source.</p>
+     *
+     * @param num number of characters to be skipped
+     */
+    public void skip(int num) {
+        pos = num <= 0 ? pos : (int) Math.min((long) pos + num, source.length());
+    }
+
+    /***
+     * <p>Returns the current position within the source.</p>
+     *
+     * @return the number of characters processed so far
+     */
+    public int getPosition() {
+        return pos;
+    }
+
+    /***
+     * <p>Returns true if escaped quotes are present at the current position.</p>
+     *
+     * @return true if escaped quotes are present
+     */
+    public boolean snoopEscQuotes() {
+        return peek() == '\\' && ABNF_QUOTED_SPECIALS.contains(peek(1));
     }
 
     /***
@@ -178,30 +237,12 @@ public class ParserLine {
      * @return the requested string
      */
     public String snoopBytes(long num) {
-        if (num <= 0) {
-            return null;
-        }
-
-        // build buffer
-        readBuffer(num);
-
-        if (buffer.length() == 0) {
+        if (num <= 0 || !hasMore()) {
             return null;
         }
 
         // if the string is too short -> return it
-        if (buffer.length() < num) {
-            return buffer;
-        }
-
-        return buffer.substring(0, (int) num);
-    }
-
-    private void addContext(String chunk) {
-        context += chunk;
-        if (context.length() > MAX_CONTEXT) {
-            context = context.substring(context.length() - MAX_CONTEXT, context.length());
-        }
+        return source.substring(pos, (int) Math.min(pos + num, source.length()));
     }
 
     /***
@@ -210,7 +251,7 @@ public class ParserLine {
      * @return String representation of the current context
      */
     public String getContext() {
-        return context + "^^^" + buffer;
+        return source.substring(Math.max(0, pos - MAX_CONTEXT), pos) + "^^^" + source.substring(pos);
     }
 
     /***
@@ -226,33 +267,25 @@ public class ParserLine {
     /***
      * <p>Skips the specified number of bytes.</p>
      *
+     * <p>The context is always derived from the source, so modContext is retained for
+     * compatibility only.</p>
+     *
      * @param num        the number of bytes to be skipped
      * @param modContext if true the context is updated by the operation
      * @return the skipped bytes
      */
     public String skipBytes(long num, boolean modContext) {
-        // make sure that we have sufficient bytes in the buffer
-        readBuffer(num);
-
         // if the string is too short -> return it
-        if (buffer.length() < num) {
-            buffer = "";
-            if (modContext) {
-                addContext(buffer);
-            }
-            return buffer;
+        if (source.length() - pos < num) {
+            pos = source.length();
+            return "";
         }
 
         // prepare return result
         String ret = snoopBytes(num);
 
-        // update context
-        if (modContext) {
-            addContext(ret);
-        }
-
-        // cut the buffer
-        buffer = buffer.substring((int) num, buffer.length());
+        // move the position
+        skip((int) num);
 
         return ret;
     }
@@ -266,13 +299,14 @@ public class ParserLine {
         // count number of spaces found
         int count = 0;
 
-        LOGGER.log(Level.FINER, "Skipping whitespaces");
         // loop thru skipper
-        while (snoopBytes(1) != null && ABNF_SP.contains(snoopBytes(1))) {
-            skipBytes(1);
+        while (ABNF_SP.contains(peek())) {
+            pos++;
             count++;
         }
-        LOGGER.log(Level.FINER, "Skipped " + count + " spaces");
+        if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.log(Level.FINER, "Skipped " + count + " spaces");
+        }
 
         // return count of spaces skipped
         return count;
@@ -288,18 +322,20 @@ public class ParserLine {
         int count = 0;
 
         // loop thru skipper
-        while (snoopBytes(1) != null && (ABNF_SP.contains(snoopBytes(1)) || "//".equals(snoopBytes(2)))) {
+        while (ABNF_SP.contains(peek()) || lookingAt("//")) {
             count += skipWhitespaceOnly();
 
             // skip comment (if any)
-            if ("//".equals(snoopBytes(2))) {
-                skipBytes(2);
+            if (lookingAt("//")) {
+                skip(2);
                 skipUntilLineEnd();
             }
 
             count += skipWhitespaceOnly();
         }
-        LOGGER.log(Level.FINER, "Skipped " + count + " NoFunc letters");
+        if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.log(Level.FINER, "Skipped " + count + " NoFunc letters");
+        }
 
         // return count of spaces skipped
         return count;
@@ -312,8 +348,8 @@ public class ParserLine {
      */
     public boolean skipLineEnd() {
         LOGGER.log(Level.FINER, "Skipping CRLF");
-        if (snoopBytes(2) != null && "\r\n".equals(snoopBytes(2))) {
-            skipBytes(2);
+        if (lookingAt("\r\n")) {
+            skip(2);
             LOGGER.log(Level.FINER, "CRLF skipped");
             return true;
         }
@@ -327,15 +363,15 @@ public class ParserLine {
      * @return True if a combo has been skipped (false if buffer ended before a CRLF combo was read
      */
     public boolean skipUntilLineEnd() {
-        while (snoopBytes(1) != null && !"\r\n".contains(snoopBytes(1))) {
-            skipBytes(1, false);
+        while (hasMore() && peek() != '\r' && peek() != '\n') {
+            pos++;
         }
 
-        if (snoopBytes(2) != null && "\r\n".contains(snoopBytes(2))) {
-            skipBytes(2, false);
+        if (lookingAt("\r\n")) {
+            skip(2);
             return true;
-        } else if (snoopBytes(1) != null && "\r\n".contains(snoopBytes(1))) {
-            skipBytes(1, false);
+        } else if (hasMore()) {
+            skip(1);
             return true;
         }
         return false;
@@ -343,44 +379,83 @@ public class ParserLine {
 
     private long getLengthPrefix() {
         // skip curly brace
-        skipBytes(1);
+        skip(1);
 
         // get number
 
         long num = 0;
-        while (snoopBytes(1) != null && "0123456789".contains(snoopBytes(1)) && num < 4294967295L) {
-            num = num * 10 + (int) (skipBytes(1).charAt(0)) - (int) ("0".charAt(0));
+        while (peek() >= '0' && peek() <= '9' && num < 4294967295L) {
+            num = num * 10 + source.charAt(pos++) - '0';
         }
         return num;
     }
 
     private String getQuotedString() {
-        // get a quoted string
-        skipBytes(1);
+        // get a quoted string, copying runs of plain characters at once
+        skip(1);
         StringBuilder ret = new StringBuilder();
-        while (snoopBytes(1) != null && (ABNF_QUOTED_CHAR.contains(snoopBytes(1)) || snoopEscQuotes())) {
-            if ("\\".contains(snoopBytes(1))) {
-                ret.append(skipBytes(2).charAt(1));
+        int run = pos;
+        while (true) {
+            char c = peek();
+            if (ABNF_QUOTED_CHAR.contains(c)) {
+                pos++;
+            } else if (snoopEscQuotes()) {
+                ret.append(source, run, pos).append(peek(1));
+                pos += 2;
+                run = pos;
             } else {
-                ret.append(skipBytes(1));
+                break;
             }
         }
-        if (snoopBytes(1) == null || !"\"".equals(skipBytes(1))) {
+        ret.append(source, run, pos);
+        if (!hasMore() || source.charAt(pos++) != '"') {
             return null;
         }
 
         return ret.toString();
     }
 
+    /***
+     * <p>Get a string atom at the current position.</p>
+     *
+     * <p>Literals without escape sequences are not copied while parsing; the atom refers to the
+     * source and materializes its value on first use.</p>
+     *
+     * @return the string atom
+     */
+    private Atom getStringAtom() {
+        int start = pos;
+        int i = pos + 1;
+        while (i < source.length() && ABNF_QUOTED_CHAR.contains(source.charAt(i))) {
+            i++;
+        }
+        if (i < source.length() && source.charAt(i) == '"') {
+            pos = i + 1;
+            return Atom.ofSourceString(sourceText, start, pos);
+        }
+
+        // escape sequences (or a malformed literal) require a copy
+        Atom ret = new Atom(Atom.AtomType.STRING, StringPool.intern(getQuotedString()), null);
+        ret.setPosition(sourceText, start, pos);
+        return ret;
+    }
+
+    /***
+     * <p>Returns the source as referenced by the positions of the parsed atoms.</p>
+     *
+     * @return the source
+     */
+    public SourceText getSourceText() {
+        return sourceText;
+    }
+
     /***
      * <p>Get an IMAP String from the buffer (quoted or prefixed).</p>
      *
      * @return The String or null if no string is at the current position
      */
     public String getString() {
-        String start = snoopBytes(1);
-
-        if ("\"".equals(start)) {
+        if (peek() == '"') {
 
             return getQuotedString();
         }
@@ -394,14 +469,14 @@ public class ParserLine {
      * @return The String or null if no string at the current position
      */
     public String getAtomName() {
-        StringBuilder ret = new StringBuilder();
+        int start = pos;
 
         // get a sequence of atom chars
-        while (snoopBytes(1) != null && ABNF_TAG.contains(snoopBytes(1))) {
-            ret.append(skipBytes(1));
+        while (ABNF_TAG.contains(peek())) {
+            pos++;
         }
 
-        return ret.toString();
+        return StringPool.intern(source.substring(start, pos));
     }
 
     /***
@@ -410,104 +485,163 @@ public class ParserLine {
      * @return the tag or null if no valid is found
      */
     public String getATag() {
-        StringBuilder ret = new StringBuilder();
-
-        // get a sequence of atom chars
-        while (snoopBytes(1) != null && ABNF_TAG.contains(snoopBytes(1))) {
-            ret.append(skipBytes(1));
-        }
+        String ret = getAtomName();
 
-        if ("".equals(ret.toString())) {
+        if ("".equals(ret)) {
             // empty tags are not allowed. At least one char is required
             return null;
         }
 
-        return ret.toString();
+        return ret;
     }
 
+    /***
+     * <p>Get a numerical literal at the current position.</p>
+     *
+     * <p>The literal is scanned in place. A sign, an optional integer part, a decimal point and
+     * at least one fractional digit make a FLOAT, a sign followed by digits only makes an
+     * INTEGER. The returned atom carries the primitive value of the literal.</p>
+     *
+     * @return the numerical atom
+     * @throws ParserException if no numerical literal is found or the integer is out of range
+     */
     public Atom getNumericalAtom() throws ParserException {
-        Matcher REGEX_INTEGER = Pattern.compile("^([-+]?\\d+)").matcher(buffer);
-        Matcher REGEX_FLOAT = Pattern.compile("^([-+]?\\d*\\.\\d+)").matcher(buffer);
-        if (REGEX_FLOAT.find()) {
-            // get float
-            String id = "" + Double.valueOf(REGEX_FLOAT.group(1));
-            skipBytes(REGEX_FLOAT.group(1).length());
-            return new Atom(Atom.AtomType.FLOAT, id, null);
-        } else if (REGEX_INTEGER.find()) {
-            // get integer
-            String id = "" + Integer.valueOf(REGEX_INTEGER.group(1));
-            skipBytes(REGEX_INTEGER.group(1).length());
-            return new Atom(Atom.AtomType.INTEGER, id, null);
-        } else {
+        int start = pos;
+        int i = pos;
+        boolean negative = false;
+        if (peek() == '-' || peek() == '+') {
+            negative = peek() == '-';
+            i++;
+        }
+
+        // scan integer part
+        long value = 0;
+        int intStart = i;
+        while (i < source.length() && DIGIT.contains(source.charAt(i))) {
+            // stop accumulating once the value is out of range for sure (avoids overflow)
+            if (value < 10_000_000_000L) {
+                value = value * 10 + (source.charAt(i) - '0');
+            }
+            i++;
+        }
+        int intEnd = i;
+
+        // scan fractional part (requires at least one digit after the decimal point)
+        if (i + 1 < source.length() && source.charAt(i) == '.' && DIGIT.contains(source.charAt(i + 1))) {
+            i++;
+            while (i < source.length() && DIGIT.contains(source.charAt(i))) {
+                i++;
+            }
+            double d = Double.parseDouble(source.substring(start, i));
+            pos = i;
+            return Atom.ofFloat(d);
+        }
+
+        if (intEnd == intStart) {
             throw new ParserException("Exception while getting numerical atom", this);
         }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new ParserException("integer literal out of range", this);
+        }
+        pos = intEnd;
+        return Atom.ofInteger(value);
     }
 
+    /***
+     * <p>Parses the atom at the current position.</p>
+     *
+     * <p>Nested commands are parsed with an explicit stack of open parameter lists instead of
+     * recursion, so the nesting depth is only limited by the available heap.</p>
+     *
+     * @return the parsed atom
+     * @throws ParserException if the source does not contain a valid atom
+     */
     public Atom getAtom() throws ParserException {
-        skipNoFunc();
-        Atom ret;
-        if ("\"".equals(snoopBytes(1))) {
-            // get string
-            String s = getQuotedString();
-            // collate value
-            ret = new Atom(Atom.AtomType.STRING, s, null);
-        } else if ("TRUE".equals(snoopBytes(4)) || "FALSE".equals(snoopBytes(5))) {
-            // get boolean
-            ret = new Atom(Atom.AtomType.BOOL, getATag().equals("TRUE") ? "TRUE" : "FALSE", null);
-        } else if ("-+.0123456789".contains(snoopBytes(1))) {
-            // get numerical
-            ret = getNumericalAtom();
-        } else if (ABNF_TAG.contains(snoopBytes(1))) {
-            int parentPointer = 0;
-            if ("root.".equals(snoopBytes(5))) {
-                skipBytes(5);
-                parentPointer = -1;
-            } else {
-                while ("parent.".equals(snoopBytes(7))) {
-                    skipBytes(7);
-                    parentPointer++;
+        Deque<OpenMethode> open = new ArrayDeque<>();
+        while (true) {
+            skipNoFunc();
+            Atom ret;
+            int start = pos;
+            char c = peek();
+            if (c == '"') {
+                // get string
+                ret = getStringAtom();
+            } else if (lookingAt("TRUE") || lookingAt("FALSE")) {
+                // get boolean
+                ret = new Atom(Atom.AtomType.BOOL, getATag().equals("TRUE") ? "TRUE" : "FALSE", null);
+                ret.setPosition(sourceText, start, pos);
+            } else if (NUMERICAL_START.contains(c)) {
+                // get numerical
+                ret = getNumericalAtom();
+                ret.setPosition(sourceText, start, pos);
+            } else if (ABNF_TAG.contains(c)) {
+                int parentPointer = 0;
+                if (lookingAt("root.")) {
+                    skip(5);
+                    parentPointer = -1;
+                } else {
+                    while (lookingAt("parent.")) {
+                        skip(7);
+                        parentPointer++;
+                    }
                 }
-            }
-            // get Methode
-            String commandName = getAtomName();
-            if ("NULL".equals(commandName)) {
-                ret = Atom.NULL_ATOM;
-            } else {
-                if (!Atom.validateCommand(commandName)) {
-                    throw new ParserException("got unknown methode \"" + commandName + "\"", this);
+                // get Methode
+                String commandName = getAtomName();
+                if ("NULL".equals(commandName)) {
+                    ret = Atom.NULL_ATOM;
+                } else {
+                    if (!Atom.validateCommand(commandName)) {
+                        throw new ParserException("got unknown methode \"" + commandName + "\"", this);
+                    }
+                    if (peek() != '(') {
+                        throw new ParserException("expected \"(\"", this);
+                    }
+                    skip(1);
+                    skipNoFunc();
+                    OpenMethode methode = new OpenMethode(commandName, parentPointer, start);
+                    if (peek() != ')') {
+                        // continue with the first parameter
+                        open.push(methode);
+                        continue;
+                    }
+                    skip(1);
+                    ret = methode.close(sourceText, pos);
                 }
-                if (!"(".equals(snoopBytes(1))) {
-                    throw new ParserException("expected \"(\"", this);
+            } else {
+                throw new ParserUnexpectedTokenException(this);
+            }
+            skipNoFunc();
+
+            // add the atom to the enclosing parameter lists, closing every list that is complete
+            while (true) {
+                OpenMethode methode = open.peek();
+                if (methode == null) {
+                    return ret;
                 }
-                skipBytes(1);
+                methode.parameters.add(ret);
                 skipNoFunc();
-                List<Atom> parameters = new Vector<>();
-                while (!")".equals(snoopBytes(1))) {
-                    skipNoFunc();
-                    parameters.add(getAtom());
-                    skipNoFunc();
 
-                    // expect ", [^)]" or ")"
-                    if (",".equals(snoopBytes(1))) {
-                        // skip atom delimiter
-                        skipBytes(1);
-                        skipNoFunc();
-                        if (")".equals(snoopBytes(1))) {
-                            throw new ParserUnexpectedTokenException(this);
-                        }
+                // expect ", [^)]" or ")"
+                if (peek() == ',') {
+                    // skip atom delimiter
+                    skip(1);
+                    skipNoFunc();
+                    if (peek() == ')') {
+                        throw new ParserUnexpectedTokenException(this);
                     }
                 }
-                skipBytes(1);
+                if (peek() != ')') {
+                    // continue with the next parameter
+                    break;
+                }
+                skip(1);
+                int end = pos;
                 skipNoFunc();
-
-                ret = new Atom(Atom.AtomType.METHODE, commandName, parameters);
-                ret.setParent(parentPointer);
+                open.pop();
+                ret = methode.close(sourceText, end);
             }
-        } else {
-            throw new ParserUnexpectedTokenException(this);
         }
-        skipNoFunc();
-        return ret;
     }
 
     public CySeCLineAtom getCySCStatement() throws ParserException {
@@ -517,10 +651,10 @@ public class ParserLine {
 
         // skip delimiter
         skipNoFunc();
-        if (!":".equals(snoopBytes(1))) {
+        if (peek() != ':') {
             throw new ParserException("expected \":\"", this);
         }
-        skipBytes(1);
+        skip(1);
         skipNoFunc();
 
         // get group label
@@ -528,39 +662,39 @@ public class ParserLine {
         skipNoFunc();
 
         // skip delimiter
-        if (!":".equals(snoopBytes(1))) {
+        if (peek() != ':') {
             throw new ParserException("expected \":\"", this);
         }
-        skipBytes(1);
+        skip(1);
         skipNoFunc();
 
         // get script
-        if ("{".equals(snoopBytes(1))) {
+        if (peek() == '{') {
             List<Atom> l = new Vector<>();
 
             // get braced statements
-            skipBytes(1);
+            skip(1);
             skipNoFunc();
 
-            while (!"".equals(snoopBytes(1)) && !"}".equals(snoopBytes(1))) {
+            while (hasMore() && peek() != '}') {
                 l.add(getAtom());
                 skipNoFunc();
-                if (!";".equals(snoopBytes(1))) {
+                if (peek() != ';') {
                     throw new ParserException("expected \";\"", this);
                 }
-                skipBytes(1);
+                skip(1);
                 skipNoFunc();
             }
 
-            if (!"}".equals(snoopBytes(1))) {
+            if (peek() != '}') {
                 throw new ParserException("expected \"}\"", this);
             }
-            skipBytes(1);
+            skip(1);
             skipNoFunc();
-            if (!";".equals(snoopBytes(1))) {
+            if (peek() != ';') {
                 throw new ParserException("expected \";\"", this);
             }
-            skipBytes(1);
+            skip(1);
             skipNoFunc();
 
             return new CySeCLineAtom(cond, name, l.toArray(new Atom[0]));
@@ -569,10 +703,10 @@ public class ParserLine {
 
             // skip delimiter
             skipNoFunc();
-            if (!";".equals(snoopBytes(1))) {
+            if (peek() != ';') {
                 throw new ParserException("expected \":\"", this);
             }
-            skipBytes(1);
+            skip(1);
             skipNoFunc();
 
             return new CySeCLineAtom(cond, name, new Atom[] {statement});
@@ -582,10 +716,31 @@ public class ParserLine {
     public List<CySeCLineAtom> getCySeCListing() throws ParserException {
         List<CySeCLineAtom> l = new Vector<>();
         skipNoFunc();
-        while (snoopBytes(1) != null) {
+        while (hasMore()) {
             l.add(getCySCStatement());
             skipNoFunc();
         }
         return l;
     }
+
+    /* a command whose parameter list is being parsed */
+    private static final class OpenMethode {
+        private final String commandName;
+        private final int parentPointer;
+        private final int start;
+        private final List<Atom> parameters = new Vector<>();
+
+        private OpenMethode(String commandName, int parentPointer, int start) {
+            this.commandName = commandName;
+            this.parentPointer = parentPointer;
+            this.start = start;
+        }
+
+        private Atom close(SourceText source, int end) {
+            Atom ret = new Atom(Atom.AtomType.METHODE, commandName, parameters);
+            ret.setParent(parentPointer);
+            ret.setPosition(source, start, end);
+            return ret;
+        }
+    }
 }
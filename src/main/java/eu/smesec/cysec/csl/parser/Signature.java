@@ -0,0 +1,117 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import eu.smesec.cysec.csl.parser.Atom.AtomType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The signature of a command: the number of parameters, their types and the type of the result.
+ * <p>Signatures are declared by the commands in their constructor and used to check parsed logic ahead of
+ * time (see {@link TypeChecker}). Types left open (no types given) accept any parameter or promise any
+ * result. Parameters beyond the declared ones have the type of the last declared parameter.</p>
+ */
+public final class Signature {
+
+    private final int minParams;
+    private final int maxParams;
+    private final List<Set<AtomType>> parameterTypes = new ArrayList<>();
+    private Set<AtomType> returnTypes = null;
+
+    /***
+     * <p>Creates the signature of a command accepting any parameters and returning any result.</p>
+     *
+     * @param minParams the minimal number of parameters
+     * @param maxParams the maximal number of parameters
+     */
+    public Signature(int minParams, int maxParams) {
+        this.minParams = minParams;
+        this.maxParams = maxParams;
+    }
+
+    /***
+     * <p>Declares the types of the results of the command.</p>
+     *
+     * <p>The command must never return null or a result of another type.</p>
+     *
+     * @param types the types of the result
+     * @return this signature
+     */
+    public Signature returns(AtomType... types) {
+        returnTypes = Collections.unmodifiableSet(EnumSet.copyOf(Arrays.asList(types)));
+        return this;
+    }
+
+    /***
+     * <p>Declares the types of the next parameter.</p>
+     *
+     * @param types the accepted types, none if any type is accepted
+     * @return this signature
+     */
+    public Signature parameter(AtomType... types) {
+        return parameter(Arrays.asList(types));
+    }
+
+    /***
+     * <p>Declares the types of the next parameter.</p>
+     *
+     * @param types the accepted types, empty if any type is accepted
+     * @return this signature
+     */
+    public Signature parameter(List<AtomType> types) {
+        parameterTypes.add(types.isEmpty() ? null : Collections.unmodifiableSet(EnumSet.copyOf(types)));
+        return this;
+    }
+
+    public int getMinParams() {
+        return minParams;
+    }
+
+    public int getMaxParams() {
+        return maxParams;
+    }
+
+    /***
+     * <p>Returns the types of the results of the command.</p>
+     *
+     * @return the types, or null if the command may return anything
+     */
+    public Set<AtomType> getReturnTypes() {
+        return returnTypes;
+    }
+
+    /***
+     * <p>Returns the types accepted for a parameter.</p>
+     *
+     * @param index the index of the parameter
+     * @return the types, or null if any type is accepted
+     */
+    public Set<AtomType> getParameterTypes(int index) {
+        if (parameterTypes.isEmpty()) {
+            return null;
+        }
+        return parameterTypes.get(Math.min(index, parameterTypes.size() - 1));
+    }
+}
@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import java.util.Arrays;
+
+/**
+ * The source code of a CSL program as referenced by the positions of its atoms.
+ * <p>Atoms only keep offsets into the source. Line and column numbers are derived on demand from a
+ * table of line starts, which is built when the first location is requested.</p>
+ */
+public final class SourceText {
+    private final String text;
+    private volatile int[] lineStarts = null;
+
+    public SourceText(String text) {
+        this.text = text;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /***
+     * <p>Returns the text between two offsets.</p>
+     *
+     * @param start the offset of the first character
+     * @param end   the offset after the last character
+     * @return the requested text
+     */
+    public String substring(int start, int end) {
+        return text.substring(start, end);
+    }
+
+    /***
+     * <p>Returns the line of an offset.</p>
+     *
+     * @param offset the offset within the source
+     * @return the line number starting with 1
+     */
+    public int getLine(int offset) {
+        int[] starts = getLineStarts();
+        int i = Arrays.binarySearch(starts, offset);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /***
+     * <p>Returns the column of an offset.</p>
+     *
+     * @param offset the offset within the source
+     * @return the column number starting with 1
+     */
+    public int getColumn(int offset) {
+        return offset - getLineStarts()[getLine(offset) - 1] + 1;
+    }
+
+    /***
+     * <p>Returns a human readable location of an offset.</p>
+     *
+     * @param offset the offset within the source
+     * @return the location as "line L, column C"
+     */
+    public String getLocation(int offset) {
+        return "line " + getLine(offset) + ", column " + getColumn(offset);
+    }
+
+    private int[] getLineStarts() {
+        int[] starts = lineStarts;
+        if (starts == null) {
+            int count = 1;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '\n') {
+                    count++;
+                }
+            }
+            starts = new int[count];
+            int line = 1;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '\n') {
+                    starts[line++] = i + 1;
+                }
+            }
+            lineStarts = starts;
+        }
+        return starts;
+    }
+}
@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonicalizes the names and short literals of parsed programs.
+ * <p>Command names, line names, question IDs, score and variable names recur thousands of times
+ * within and across coaches. The parser maps all of them to one shared instance, which saves memory
+ * and lets map lookups succeed on the identity check of {@link String#equals(Object)}. The pool is
+ * shared by all coaches of the JVM and only grows with the distinct names of the loaded logic, as
+ * longer literals are not pooled.</p>
+ */
+public final class StringPool {
+
+    /** strings longer than this are not pooled */
+    public static final int MAX_LENGTH = 64;
+
+    private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, String> LOWER_CASE = new ConcurrentHashMap<>();
+
+    private StringPool() {}
+
+    /***
+     * <p>Returns the canonical instance of a string.</p>
+     *
+     * @param s the string to canonicalize
+     * @return the pooled instance, or s itself if it is null or too long to be pooled
+     */
+    public static String intern(String s) {
+        if (s == null || s.length() > MAX_LENGTH) {
+            return s;
+        }
+        String pooled = POOL.putIfAbsent(s, s);
+        return pooled != null ? pooled : s;
+    }
+
+    /***
+     * <p>Converts a string to lower case as {@link String#toLowerCase()} does.</p>
+     *
+     * <p>The result is cached for pooled strings, so repeated conversions of the same name do not
+     * allocate. Other strings are converted on every call.</p>
+     *
+     * @param s the string to convert
+     * @return the string in lower case
+     */
+    public static String toLowerCase(String s) {
+        if (POOL.get(s) != s) {
+            return s.toLowerCase();
+        }
+        String lower = LOWER_CASE.get(s);
+        if (lower == null) {
+            lower = intern(s.toLowerCase(Locale.getDefault()));
+            LOWER_CASE.putIfAbsent(s, lower);
+        }
+        return lower;
+    }
+
+    /***
+     * <p>Returns the number of pooled strings.</p>
+     *
+     * @return the size of the pool
+     */
+    public static int size() {
+        return POOL.size();
+    }
+}
@@ -0,0 +1,153 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import eu.smesec.cysec.csl.parser.Atom.AtomType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks parsed logic against the signatures of the commands (see {@link Command#getSignature()}).
+ * <p>The type of a literal is known, the type of a call is given by the signature of its command. Calls
+ * whose parameters are of accepted types only are marked (see {@link Atom#isTypeChecked()}) and executed
+ * without runtime checks. Calls of commands without signature, and calls whose parameters are of unknown
+ * type (such as the value of a variable), are left to the runtime checks.</p>
+ * <p>Calls with an invalid number of parameters, or parameters which cannot be of an accepted type, are
+ * reported (see {@link #report(List)}) but the listing is still loaded: such a call is left unmarked and
+ * fails at runtime like unchecked logic does, so a call in a branch that never runs does no harm.</p>
+ */
+public final class TypeChecker {
+
+    private TypeChecker() {}
+
+    /***
+     * <p>Checks the lines of a listing.</p>
+     * <p>Each condition and statement is checked on its own, so an ill-typed expression does not stop the
+     * remaining ones from being checked and marked. Ill-typed calls are not marked.</p>
+     *
+     * @param listing the lines to check
+     * @return the reasons of all ill-typed expressions, empty if the listing can be executed without error
+     */
+    public static List<String> report(List<CySeCLineAtom> listing) {
+        List<String> problems = new ArrayList<>();
+        for (CySeCLineAtom line : listing) {
+            Set<AtomType> condition = typeOf(line.getCond());
+            if (condition != null && !condition.contains(AtomType.BOOL)) {
+                String reason = "condition of line " + line.getName() + " does not evaluate to BOOL";
+                problems.add(error(reason, line.getCond()).getReason());
+            }
+            report(line.getCond(), problems);
+            for (Atom statement : line.getStatements()) {
+                report(statement, problems);
+            }
+        }
+        return problems;
+    }
+
+    private static void report(Atom expression, List<String> problems) {
+        try {
+            check(expression);
+        } catch (ParserException e) {
+            problems.add(e.getReason());
+        }
+    }
+
+    /***
+     * <p>Checks an expression.</p>
+     *
+     * @param root the expression to check
+     * @throws ParserException if the expression cannot be evaluated without error
+     */
+    public static void check(Atom root) throws ParserException {
+        // nested calls are checked iteratively, as parsed logic may be nested deeply
+        Deque<Atom> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Atom atom = pending.pop();
+            if (atom.getType() == AtomType.METHODE && atom.getParameters() != null) {
+                checkCall(atom);
+                for (Atom parameter : atom.getParameters()) {
+                    pending.push(parameter);
+                }
+            }
+        }
+    }
+
+    private static void checkCall(Atom atom) throws ParserException {
+        Command command = atom.getCommand();
+        Signature signature = command != null ? command.getSignature() : null;
+        if (signature == null) {
+            return;
+        }
+        List<Atom> parameters = atom.getParameters();
+        if (parameters.size() < signature.getMinParams() || parameters.size() > signature.getMaxParams()) {
+            throw error(
+                    "Invalid number of arguments. Expected " + bounds(signature) + " parameters but got "
+                            + parameters.size() + " parameters in command " + command.getCommandName() + ".",
+                    atom);
+        }
+        boolean proven = true;
+        for (int i = 0; i < parameters.size(); i++) {
+            Set<AtomType> accepted = signature.getParameterTypes(i);
+            if (accepted == null) {
+                continue;
+            }
+            Set<AtomType> types = typeOf(parameters.get(i));
+            if (types == null) {
+                proven = false;
+            } else if (Collections.disjoint(types, accepted)) {
+                throw error(
+                        "Illegal type for parameter " + (i + 1) + " of " + command.getCommandName() + " (should: "
+                                + accepted + "; was: " + types + ")",
+                        parameters.get(i));
+            } else {
+                // lazy parameters are evaluated by the command, which checks them
+                proven &= accepted.containsAll(types) && command.isEagerParameter(i);
+            }
+        }
+        atom.setTypeChecked(proven);
+    }
+
+    /* returns the types an atom may evaluate to, or null if unknown */
+    private static Set<AtomType> typeOf(Atom atom) {
+        if (atom.getType() != AtomType.METHODE) {
+            return EnumSet.of(atom.getType());
+        }
+        Signature signature = atom.getCommand() != null ? atom.getCommand().getSignature() : null;
+        return signature != null ? signature.getReturnTypes() : null;
+    }
+
+    private static String bounds(Signature signature) {
+        if (signature.getMinParams() == signature.getMaxParams()) {
+            return String.valueOf(signature.getMinParams());
+        }
+        return "between " + signature.getMinParams() + " and " + signature.getMaxParams();
+    }
+
+    private static ParserException error(String reason, Atom atom) {
+        String location = atom.getLocation();
+        return new ParserException(reason + (location != null ? " (" + location + ")" : ""), null);
+    }
+}
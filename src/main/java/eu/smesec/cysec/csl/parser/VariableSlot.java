@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A variable name resolved to a slot of the variable storage of executor contexts.
+ * <p>Slots are assigned once per name and shared by all executor contexts, which keep the variables looked up
+ * by slot in an array indexed by slot. Only names given as literals are resolved, when the logic is compiled, so the
+ * number of slots is bounded by the loaded logic. Names computed at runtime are looked up in the variables map of
+ * the context instead.</p>
+ */
+public final class VariableSlot {
+
+    private static final Map<String, VariableSlot> SLOTS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int index;
+
+    private VariableSlot(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    /***
+     * <p>Resolves a variable name, assigning a new slot on first use.</p>
+     *
+     * @param name the name of the variable
+     * @return the slot of the variable
+     */
+    public static VariableSlot of(String name) {
+        VariableSlot slot = SLOTS.get(name);
+        if (slot == null) {
+            synchronized (SLOTS) {
+                slot = SLOTS.get(name);
+                if (slot == null) {
+                    slot = new VariableSlot(name, SLOTS.size());
+                    SLOTS.put(name, slot);
+                }
+            }
+        }
+        return slot;
+    }
+
+    /***
+     * <p>Resolves a variable name without assigning a slot.</p>
+     *
+     * @param name the name of the variable
+     * @return the slot of the variable, or null if no variable of this name has been resolved yet
+     */
+    public static VariableSlot find(String name) {
+        return SLOTS.get(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return name + "@" + index;
+    }
+}
@@ -19,6 +19,7 @@
  */
 package eu.smesec.cysec.csl.skills;
 
+import eu.smesec.cysec.csl.parser.StringPool;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,13 +51,28 @@ public class ScoreFactory {
         }
     }
 
+    /**
+     * A score collecting the values and caps added by the questions.
+     *
+     * <p>The contributions are kept in a {@link ScoreLedger}, which maintains the total and the lowest cap while values
+     * and caps are added and questions are reverted, so reading the value does not visit the contributions of every
+     * question.</p>
+     */
     public static class Score {
-        private Map<String, List<ScoreValue>> scores = new HashMap<>();
+        // guarded by itself
+        private final ScoreLedger ledger = new ScoreLedger();
+        // shared with the other scores of the factory
+        private final ScoreLedger.Questions questions;
         private boolean hidden = false;
         private final String id;
 
         public Score(String id) {
+            this(id, new ScoreLedger.Questions());
+        }
+
+        Score(String id, ScoreLedger.Questions questions) {
             this.id = id;
+            this.questions = questions;
         }
 
         public String getId() {
@@ -72,71 +88,64 @@ public class ScoreFactory {
         }
 
         public void reset() {
-            synchronized (scores) {
-                scores.clear();
+            synchronized (ledger) {
+                ledger.clear();
             }
         }
 
         public void revertQuestion(String id) {
-            scores.put(id.toLowerCase(), new Vector<>());
+            int question = questions.find(id);
+            if (question >= 0) {
+                revertQuestion(question);
+            }
         }
 
-        private void addQuestionScore(String id, ScoreValue v) {
-            if (id == null) {
-                id = "__NULL__";
-            }
-            synchronized (scores) {
-                if (scores.get(id.toLowerCase()) == null) {
-                    revertQuestion(id);
-                }
-                List<ScoreValue> sv = scores.get(id.toLowerCase());
-                synchronized (sv) {
-                    sv.add(v);
-                }
+        void revertQuestion(int question) {
+            synchronized (ledger) {
+                ledger.revert(question);
             }
         }
 
         public void add(String questionId, double value) {
-            addQuestionScore(questionId, new ScoreValue(ScoreType.VALUE, value));
+            int question = questions.index(questionId);
+            synchronized (ledger) {
+                ledger.add(question, value);
+            }
         }
 
         public void cap(String questionId, double value) {
-            addQuestionScore(questionId, new ScoreValue(ScoreType.CAP, value));
+            int question = questions.index(questionId);
+            synchronized (ledger) {
+                ledger.cap(question, value);
+            }
         }
 
         public double getValue() {
-            synchronized (scores) {
-                double totalValue = 0;
-                double minCap = Double.MAX_VALUE;
-                for (List<ScoreValue> svl : scores.values()) {
-                    synchronized (svl) {
-                        for (ScoreValue sv : svl) {
-                            switch (sv.getScoretype()) {
-                                case VALUE:
-                                    totalValue += sv.getValue();
-                                    break;
-                                case CAP:
-                                    minCap = Math.min(minCap, sv.getValue());
-                                    break;
-                                default:
-                                    new RuntimeException("Encountered unknown type of ScoreValue");
-                            }
-                        }
-                    }
-                }
-                return Math.min(minCap, totalValue);
+            synchronized (ledger) {
+                return ledger.getValue();
+            }
+        }
+
+        double getQuestionValue(int question) {
+            synchronized (ledger) {
+                return ledger.getSum(question);
             }
         }
     }
 
     private Map<String, Score> scores = new HashMap<>();
+    // the indexes of the questions contributing to the scores of this factory
+    private final ScoreLedger.Questions questions = new ScoreLedger.Questions();
 
     public Score getIntScore(String id) {
+        String key = StringPool.toLowerCase(id);
         synchronized (scores) {
-            if (scores.get(id.toLowerCase()) == null) {
-                scores.put(id.toLowerCase(), new Score(id));
+            Score score = scores.get(key);
+            if (score == null) {
+                score = new Score(id, questions);
+                scores.put(key, score);
             }
-            return scores.get(id.toLowerCase());
+            return score;
         }
     }
 
@@ -152,6 +161,29 @@ public class ScoreFactory {
         return ret.toArray(new Score[ret.size()]);
     }
 
+    /**
+     * Returns the values a question has added to the scores, hidden scores included and caps not taken into account.
+     *
+     * @param questionId the id of the question
+     * @return the ids of the scores the question has added to mapped to the sum of its values
+     */
+    public Map<String, Double> getQuestionValues(String questionId) {
+        Map<String, Double> ret = new HashMap<>();
+        int question = questions.find(questionId);
+        if (question < 0) {
+            return ret;
+        }
+        synchronized (scores) {
+            for (Score s : scores.values()) {
+                double value = s.getQuestionValue(question);
+                if (value != 0) {
+                    ret.put(s.getId(), value);
+                }
+            }
+        }
+        return ret;
+    }
+
     public double getScore(String id) {
         return getIntScore(id).getValue();
     }
@@ -163,15 +195,51 @@ public class ScoreFactory {
     }
 
     public void revertQuestion(String questionId) {
+        // questions which never contributed have no index and nothing to revert
+        int question = questions.find(questionId);
+        if (question < 0) {
+            return;
+        }
         synchronized (scores) {
             for (Score s : scores.values()) {
-                s.revertQuestion(questionId);
+                s.revertQuestion(question);
+            }
+        }
+    }
+
+    /**
+     * Reverts the contributions of all questions whose id starts with a prefix, e.g. the questions of a subcoach
+     * instance (see {@link eu.smesec.cysec.csl.parser.CoachContext#getScoreQuestionId()}), and forgets these
+     * questions.
+     *
+     * @param prefix the prefix of the question ids
+     */
+    public void revertQuestions(String prefix) {
+        // released first, so a concurrent contribution is registered anew instead of being reverted with them
+        int[] released = questions.release(prefix);
+        if (released.length == 0) {
+            return;
+        }
+        synchronized (scores) {
+            for (Score s : scores.values()) {
+                for (int question : released) {
+                    s.revertQuestion(question);
+                }
             }
         }
     }
 
     public void addQuestionScore(String scoreId, String questionId, ScoreType t, double value) {
-        getIntScore(scoreId).addQuestionScore(questionId, new ScoreValue(t, value));
+        switch (t) {
+            case VALUE:
+                getIntScore(scoreId).add(questionId, value);
+                break;
+            case CAP:
+                getIntScore(scoreId).cap(questionId, value);
+                break;
+            default:
+                throw new IllegalArgumentException("Encountered unknown type of ScoreValue");
+        }
     }
 
     public void reset() {
@@ -0,0 +1,252 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.skills;
+
+import eu.smesec.cysec.csl.parser.StringPool;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The contributions of the questions to a single score.
+ *
+ * <p>Questions are identified by an index resolved once from their (lower case) id (see {@link Questions}). The
+ * ledger holds an entry only
+ * for the questions which added a value or cap to the score, stored in parallel primitive arrays sorted by the
+ * question index: the sum and number of the values and the lowest cap of the question. The total and the lowest cap
+ * of the score are maintained along the entries.</p>
+ *
+ * <p>The ledger is not thread safe, {@link ScoreFactory.Score} synchronizes the access.</p>
+ */
+final class ScoreLedger {
+
+    /** Marks entries without a cap. */
+    static final double NO_CAP = Double.MAX_VALUE;
+
+    private static final String NULL_QUESTION = "__NULL__";
+    private static final int[] NO_QUESTIONS = new int[0];
+    private static final double[] NO_VALUES = new double[0];
+
+    private int size = 0;
+    private int[] questions = NO_QUESTIONS;
+    private double[] sums = NO_VALUES;
+    private int[] counts = NO_QUESTIONS;
+    private double[] caps = NO_VALUES;
+
+    // compensated running sum of all values, see addToTotal(double)
+    private double total = 0;
+    private double compensation = 0;
+    private int contributors = 0;
+    private double minCap = NO_CAP;
+
+    void add(int question, double value) {
+        int i = entry(question);
+        if (counts[i]++ == 0) {
+            contributors++;
+        }
+        sums[i] += value;
+        addToTotal(value);
+    }
+
+    void cap(int question, double value) {
+        int i = entry(question);
+        if (value < caps[i]) {
+            caps[i] = value;
+            minCap = Math.min(minCap, value);
+        }
+    }
+
+    /**
+     * Removes the contributions of a question.
+     *
+     * @param question the index of the question
+     */
+    void revert(int question) {
+        int i = Arrays.binarySearch(questions, 0, size, question);
+        if (i < 0) {
+            return;
+        }
+        double sum = sums[i];
+        int count = counts[i];
+        double cap = caps[i];
+        int tail = size - i - 1;
+        System.arraycopy(questions, i + 1, questions, i, tail);
+        System.arraycopy(sums, i + 1, sums, i, tail);
+        System.arraycopy(counts, i + 1, counts, i, tail);
+        System.arraycopy(caps, i + 1, caps, i, tail);
+        size--;
+
+        if (count > 0 && --contributors == 0) {
+            // start over exactly instead of carrying the rounding of the reverted values
+            total = 0;
+            compensation = 0;
+        } else if (count > 0) {
+            addToTotal(-sum);
+            if (!Double.isFinite(total)) {
+                // infinite or NaN values can not be subtracted again
+                recomputeTotal();
+            }
+        }
+        if (cap != NO_CAP && cap == minCap) {
+            minCap = NO_CAP;
+            for (int j = 0; j < size; j++) {
+                minCap = Math.min(minCap, caps[j]);
+            }
+        }
+    }
+
+    void clear() {
+        size = 0;
+        questions = NO_QUESTIONS;
+        sums = NO_VALUES;
+        counts = NO_QUESTIONS;
+        caps = NO_VALUES;
+        total = 0;
+        compensation = 0;
+        contributors = 0;
+        minCap = NO_CAP;
+    }
+
+    /**
+     * Returns the sum of the values a question has added, its caps are not taken into account.
+     *
+     * @param question the index of the question
+     * @return the sum, 0 if the question has not added any value
+     */
+    double getSum(int question) {
+        int i = Arrays.binarySearch(questions, 0, size, question);
+        return i >= 0 ? sums[i] : 0;
+    }
+
+    double getValue() {
+        return Math.min(minCap, total + compensation);
+    }
+
+    private int entry(int question) {
+        int i = Arrays.binarySearch(questions, 0, size, question);
+        if (i >= 0) {
+            return i;
+        }
+        i = -i - 1;
+        if (size == questions.length) {
+            int capacity = Math.max(4, size * 2);
+            questions = Arrays.copyOf(questions, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            caps = Arrays.copyOf(caps, capacity);
+        }
+        int tail = size - i;
+        System.arraycopy(questions, i, questions, i + 1, tail);
+        System.arraycopy(sums, i, sums, i + 1, tail);
+        System.arraycopy(counts, i, counts, i + 1, tail);
+        System.arraycopy(caps, i, caps, i + 1, tail);
+        questions[i] = question;
+        sums[i] = 0;
+        counts[i] = 0;
+        caps[i] = NO_CAP;
+        size++;
+        return i;
+    }
+
+    /**
+     * Adds a value to the running total (Neumaier summation).
+     *
+     * <p>Reverting a question subtracts its values again, the compensation keeps the rounding errors of these
+     * subtractions from accumulating over the runs.</p>
+     */
+    private void addToTotal(double value) {
+        double sum = total + value;
+        if (Double.isFinite(sum)) {
+            compensation += Math.abs(total) >= Math.abs(value) ? (total - sum) + value : (value - sum) + total;
+        }
+        total = sum;
+    }
+
+    /**
+     * The indexes of the questions contributing to the scores sharing them (e.g. the scores of a
+     * {@link ScoreFactory}).
+     *
+     * <p>An index is registered on the first contribution of a question. Released indexes are not used again, a
+     * question contributing after its release is registered under a new index.</p>
+     */
+    static final class Questions {
+        private final Map<String, Integer> indexes = new ConcurrentHashMap<>();
+        private final AtomicInteger next = new AtomicInteger();
+
+        /**
+         * Resolves the index of a question, registering the question if required.
+         *
+         * @param questionId the id of the question, <code>null</code> for contributions outside of a question
+         * @return the index of the question
+         */
+        int index(String questionId) {
+            return indexes.computeIfAbsent(key(questionId), k -> next.getAndIncrement());
+        }
+
+        /**
+         * Looks up the index of a question.
+         *
+         * @param questionId the id of the question
+         * @return the index of the question or -1 if the question has not contributed since it was released
+         */
+        int find(String questionId) {
+            Integer index = indexes.get(key(questionId));
+            return index == null ? -1 : index;
+        }
+
+        /**
+         * Releases the indexes of all questions whose id starts with a prefix. The contributions of these questions
+         * must be reverted from all scores sharing the indexes.
+         *
+         * @param prefix the prefix of the question ids
+         * @return the released indexes
+         */
+        int[] release(String prefix) {
+            String key = StringPool.toLowerCase(prefix);
+            List<Integer> released = new ArrayList<>();
+            for (Iterator<Map.Entry<String, Integer>> i = indexes.entrySet().iterator(); i.hasNext(); ) {
+                Map.Entry<String, Integer> entry = i.next();
+                if (entry.getKey().startsWith(key)) {
+                    released.add(entry.getValue());
+                    i.remove();
+                }
+            }
+            return released.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static String key(String questionId) {
+            return StringPool.toLowerCase(questionId == null ? NULL_QUESTION : questionId);
+        }
+    }
+
+    private void recomputeTotal() {
+        total = 0;
+        compensation = 0;
+        for (int i = 0; i < size; i++) {
+            if (counts[i] > 0) {
+                addToTotal(sums[i]);
+            }
+        }
+    }
+}
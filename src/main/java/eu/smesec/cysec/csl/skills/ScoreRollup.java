@@ -0,0 +1,107 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.skills;
+
+import eu.smesec.cysec.csl.parser.StringPool;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The contributions of the subcoach instances to the scores of a coach.
+ *
+ * <p>Subcoach logic adds to the scores of its ancestors through parent pointers. These values are held by the scores
+ * of the ancestor like any other, under the question id qualified with the instance (see
+ * {@link eu.smesec.cysec.csl.parser.CoachContext#getScoreQuestionId()}), so reading the scores of a coach does not
+ * visit any subcoach data. After each run of a question, the subcoach publishes the change of its contributions to
+ * each ancestor as deltas, and the roll-up breaks the contributions down per instance, with the totals over all
+ * instances. Removing an instance subtracts its contribution in the number of its scores.</p>
+ */
+public class ScoreRollup {
+
+    // subcoach instance -> score id (lower case) -> contribution of the instance
+    private final Map<String, Map<String, Double>> instances = new HashMap<>();
+    // score id (lower case) -> contribution of all instances
+    private final Map<String, Double> totals = new HashMap<>();
+
+    /**
+     * Adds the changes of the scores of a subcoach instance.
+     *
+     * @param instance the key of the subcoach instance
+     * @param deltas the score ids mapped to the change of their value
+     */
+    public synchronized void add(String instance, Map<String, Double> deltas) {
+        Map<String, Double> scores = instances.computeIfAbsent(instance, k -> new HashMap<>());
+        for (Map.Entry<String, Double> delta : deltas.entrySet()) {
+            String key = StringPool.toLowerCase(delta.getKey());
+            scores.merge(key, delta.getValue(), Double::sum);
+            totals.merge(key, delta.getValue(), Double::sum);
+        }
+    }
+
+    /**
+     * Removes the contribution of a subcoach instance.
+     *
+     * @param instance the key of the subcoach instance
+     */
+    public synchronized void remove(String instance) {
+        Map<String, Double> scores = instances.remove(instance);
+        if (scores == null) {
+            return;
+        }
+        if (instances.isEmpty()) {
+            // start over exactly instead of carrying the rounding of the subtracted contributions
+            totals.clear();
+            return;
+        }
+        for (Map.Entry<String, Double> score : scores.entrySet()) {
+            totals.merge(score.getKey(), -score.getValue(), Double::sum);
+        }
+    }
+
+    /**
+     * Returns the value of a score summed over all subcoach instances.
+     *
+     * @param scoreId the id of the score
+     * @return the total or 0 if no instance has contributed to the score
+     */
+    public synchronized double getTotal(String scoreId) {
+        return totals.getOrDefault(StringPool.toLowerCase(scoreId), 0d);
+    }
+
+    /**
+     * Returns the values of the scores summed over all subcoach instances.
+     *
+     * @return a copy of the score ids (lower case) mapped to their total
+     */
+    public synchronized Map<String, Double> getTotals() {
+        return new HashMap<>(totals);
+    }
+
+    /**
+     * Returns the values of the scores per subcoach instance.
+     *
+     * @return a copy of the instance keys mapped to the score ids (lower case) and their values
+     */
+    public synchronized Map<String, Map<String, Double>> getInstances() {
+        Map<String, Map<String, Double>> ret = new HashMap<>();
+        instances.forEach((instance, scores) -> ret.put(instance, new HashMap<>(scores)));
+        return ret;
+    }
+}
@@ -0,0 +1,171 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.utils;
+
+import eu.smesec.cysec.platform.bridge.generated.Block;
+import eu.smesec.cysec.platform.bridge.generated.Question;
+import eu.smesec.cysec.platform.bridge.generated.Questionnaire;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the questions of a questionnaire.
+ *
+ * <p>Maps the id of a question to the question, to its position in the questionnaire and to the block
+ * containing it. The index is built once per questionnaire instance and rebuilt if the list of questions or
+ * blocks of the questionnaire has been replaced or changed in size. Other changes to the content of a
+ * questionnaire, such as replacing a question, must be announced by {@link #invalidate(Questionnaire)}. Changes
+ * to the questions themselves (e.g. the hidden flag) are seen directly, as the index refers to the questions of
+ * the questionnaire.</p>
+ * <p>Lookups do not lock, the indexes are held by a concurrent map referring weakly to the questionnaires.</p>
+ */
+public final class QuestionIndex {
+
+    private static final Map<Key, QuestionIndex> INDEXES = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Questionnaire> COLLECTED = new ReferenceQueue<>();
+
+    private final List<Question> questions;
+    private final int questionCount;
+    private final List<Block> blocks;
+    private final int blockCount;
+    private final Map<String, Integer> positions;
+    private final Map<String, String> blockIds;
+
+    private QuestionIndex(Questionnaire coach) {
+        questions = coach.getQuestions() != null ? coach.getQuestions().getQuestion() : Collections.emptyList();
+        questionCount = questions.size();
+        positions = new HashMap<>(questionCount * 2);
+        for (int i = 0; i < questions.size(); i++) {
+            // the first question of an id is found, as by a linear search
+            positions.putIfAbsent(questions.get(i).getId(), i);
+        }
+        blocks = coach.getBlocks() != null ? coach.getBlocks().getBlock() : Collections.emptyList();
+        blockCount = blocks.size();
+        blockIds = new HashMap<>();
+        for (Block block : blocks) {
+            for (Object question : block.getQidList()) {
+                // a question listed by several blocks belongs to the last one
+                blockIds.put(((Question) question).getId(), block.getId());
+            }
+        }
+    }
+
+    /**
+     * Returns the index of a questionnaire, building it if required.
+     *
+     * @param coach the questionnaire
+     * @return the index of the questionnaire
+     */
+    public static QuestionIndex of(Questionnaire coach) {
+        QuestionIndex index = INDEXES.get(new Key(coach, null));
+        if (index == null || !index.isCurrent(coach)) {
+            // concurrent rebuilds are harmless, they build equal indexes
+            index = new QuestionIndex(coach);
+            INDEXES.put(new Key(coach, COLLECTED), index);
+            for (Reference<?> key; (key = COLLECTED.poll()) != null; ) {
+                INDEXES.remove(key);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Drops the index of a questionnaire whose content has changed, it is built again on its next use.
+     *
+     * @param coach the questionnaire
+     */
+    public static void invalidate(Questionnaire coach) {
+        if (coach != null) {
+            INDEXES.remove(new Key(coach, null));
+        }
+    }
+
+    private boolean isCurrent(Questionnaire coach) {
+        List<Question> currentQuestions =
+                coach.getQuestions() != null ? coach.getQuestions().getQuestion() : Collections.emptyList();
+        List<Block> currentBlocks = coach.getBlocks() != null ? coach.getBlocks().getBlock() : Collections.emptyList();
+        return currentQuestions == questions
+                && currentQuestions.size() == questionCount
+                && currentBlocks == blocks
+                && currentBlocks.size() == blockCount;
+    }
+
+    /**
+     * Finds a question by its id.
+     *
+     * @param id the id of the question
+     * @return the question, or null if there is no question with this id
+     */
+    public Question get(String id) {
+        Integer position = positions.get(id);
+        return position != null ? questions.get(position) : null;
+    }
+
+    /**
+     * Returns the position of a question in the questionnaire.
+     *
+     * @param id the id of the question
+     * @return the zero based position, or -1 if there is no question with this id
+     */
+    public int getPosition(String id) {
+        Integer position = positions.get(id);
+        return position != null ? position : -1;
+    }
+
+    /**
+     * Returns the block containing a question.
+     *
+     * @param id the id of the question
+     * @return the id of the block, or null if the question is not part of a block
+     */
+    public String getBlockId(String id) {
+        return blockIds.get(id);
+    }
+
+    /* refers weakly to a questionnaire, compared by identity */
+    private static final class Key extends WeakReference<Questionnaire> {
+        private final int hash;
+
+        Key(Questionnaire coach, ReferenceQueue<Questionnaire> queue) {
+            super(coach, queue);
+            hash = System.identityHashCode(coach);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            Questionnaire coach = get();
+            return o instanceof Key && coach != null && coach == ((Key) o).get();
+        }
+    }
+}
@@ -24,9 +24,6 @@ import eu.smesec.cysec.platform.bridge.generated.Questionnaire;
 
 public class Utils {
     public static Question findById(Questionnaire coach, String qid) {
-        return coach.getQuestions().getQuestion().stream()
-                .filter(q -> q.getId().equals(qid))
-                .findFirst()
-                .orElse(null);
+        return QuestionIndex.of(coach).get(qid);
     }
 }
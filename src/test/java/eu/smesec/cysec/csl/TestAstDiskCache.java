@@ -0,0 +1,129 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import eu.smesec.cysec.csl.parser.CySeCLineAtom;
+import eu.smesec.cysec.csl.parser.ParserLine;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestAstDiskCache {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testStoreAndLoad() throws Exception {
+        AstDiskCache cache = new AstDiskCache(folder.getRoot().toPath().resolve("ast"), Logger.getGlobal());
+        String code = "isSelected(\"q1o1\") : q1 : addScore(\"s\", 5);";
+        assertTrue("entry found in empty cache", cache.load(code) == null);
+
+        cache.store(code, new ParserLine(code).getCySeCListing());
+        List<CySeCLineAtom> ast = cache.load(code);
+        assertTrue("stored entry not found", ast != null && ast.size() == 1);
+        assertTrue("stored entry differs", "q1".equals(ast.get(0).getName()));
+        assertTrue("changed code hits stale entry", cache.load(code + " ") == null);
+    }
+
+    @Test
+    public void testCorruptEntryIsMiss() throws Exception {
+        AstDiskCache cache = new AstDiskCache(folder.getRoot().toPath(), Logger.getGlobal());
+        String code = "TRUE : q1 : print(\"x\");";
+        Path file = folder.getRoot().toPath().resolve(cache.getKey(code) + ".ast");
+        Files.write(file, new byte[] {1, 2, 3});
+        assertTrue("corrupt entry not ignored", cache.load(code) == null);
+
+        cache.store(code, new ParserLine(code).getCySeCListing());
+        assertTrue("corrupt entry not replaced", cache.load(code) != null);
+    }
+
+    @Test
+    public void testPrivateDirectory() throws Exception {
+        Path directory = folder.getRoot().toPath().resolve("private");
+        AstDiskCache cache = new AstDiskCache(directory, Logger.getGlobal());
+        String code = "TRUE : q1 : print(\"x\");";
+        cache.store(code, new ParserLine(code).getCySeCListing());
+        assertTrue("entry not stored", cache.load(code) != null);
+        if (directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertTrue(
+                    "directory accessible by others",
+                    Files.getPosixFilePermissions(directory).equals(PosixFilePermissions.fromString("rwx------")));
+        }
+    }
+
+    @Test
+    public void testSharedDirectoryNotUsed() throws Exception {
+        Path directory = folder.newFolder("shared").toPath();
+        assumeTrue(directory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwxrwxrwx"));
+        String code = "TRUE : q1 : print(\"x\");";
+        AstDiskCache source = new AstDiskCache(folder.getRoot().toPath().resolve("source"), Logger.getGlobal());
+        Path file = directory.resolve(source.getKey(code) + ".ast");
+        source.store(code, new ParserLine(code).getCySeCListing());
+        Files.copy(folder.getRoot().toPath().resolve("source").resolve(file.getFileName()), file);
+
+        AstDiskCache cache = new AstDiskCache(directory, Logger.getGlobal());
+        assertTrue("entry of a directory writable by others used", cache.load(code) == null);
+    }
+
+    @Test
+    public void testPrune() throws Exception {
+        Path directory = folder.getRoot().toPath().resolve("bounded");
+        AstDiskCache cache = new AstDiskCache(directory, Logger.getGlobal(), 2);
+        for (int i = 0; i < 5; i++) {
+            String code = "TRUE : q" + i + " : print(\"x\");";
+            cache.store(code, new ParserLine(code).getCySeCListing());
+        }
+        try (Stream<Path> entries = Files.list(directory)) {
+            assertTrue("cache not pruned", entries.count() == 2);
+        }
+    }
+
+    @Test
+    public void testConfigurationIsPartOfKey() throws Exception {
+        Path directory = folder.getRoot().toPath().resolve("configured");
+        String code = "TRUE : q1 : print(\"x\");";
+        new AstDiskCache(directory, Logger.getGlobal(), 0, "optimize=true")
+                .store(code, new ParserLine(code).getCySeCListing());
+        assertTrue(
+                "entry of another configuration used",
+                new AstDiskCache(directory, Logger.getGlobal(), 0, "optimize=false").load(code) == null);
+        assertTrue(
+                "entry of the same configuration not used",
+                new AstDiskCache(directory, Logger.getGlobal(), 0, "optimize=true").load(code) != null);
+    }
+
+    @Test
+    public void testHash() {
+        assertTrue(
+                "unexpected hash",
+                "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855".equals(AstDiskCache.hash("")));
+    }
+}
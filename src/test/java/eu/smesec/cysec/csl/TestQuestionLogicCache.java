@@ -0,0 +1,88 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl;
+
+import static org.junit.Assert.assertTrue;
+
+import eu.smesec.cysec.csl.parser.ConditionIndex;
+import eu.smesec.cysec.csl.parser.CySeCLineAtom;
+import eu.smesec.cysec.csl.parser.ParserException;
+import eu.smesec.cysec.csl.parser.ParserLine;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class TestQuestionLogicCache {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private List<CySeCLineAtom> load(String questionId) throws ParserException {
+        loads.incrementAndGet();
+        return new ParserLine("TRUE : " + questionId + " : addScore(\"s\", 1);").getCySeCListing();
+    }
+
+    @Test
+    public void testLoadOnDemand() throws Exception {
+        QuestionLogicCache cache = new QuestionLogicCache(10, QuestionLogicCache.EvictionPolicy.LRU);
+        List<CySeCLineAtom> ast = cache.get("q1", this::load);
+        assertTrue("logic not loaded", ast.size() == 1 && "q1".equals(ast.get(0).getName()));
+        assertTrue("cached logic not reused", cache.get("q1", this::load) == ast && loads.get() == 1);
+    }
+
+    @Test
+    public void testIndexedOnce() throws Exception {
+        QuestionLogicCache cache = new QuestionLogicCache(10, QuestionLogicCache.EvictionPolicy.LRU);
+        ConditionIndex index = cache.getIndex("q1", this::load);
+        assertTrue("conditions indexed again", cache.getIndex("q1", this::load) == index);
+        assertTrue("index does not hold the cached logic", cache.get("q1", this::load) == index.getListing());
+    }
+
+    @Test
+    public void testReloadAfterEviction() throws Exception {
+        QuestionLogicCache cache = new QuestionLogicCache(2, QuestionLogicCache.EvictionPolicy.LRU);
+        cache.get("q1", this::load);
+        cache.get("q2", this::load);
+        cache.get("q1", this::load);
+        cache.get("q3", this::load);
+        assertTrue("bound not respected", cache.size() == 2);
+        assertTrue("least recently used entry not evicted", cache.contains("q1") && !cache.contains("q2"));
+        List<CySeCLineAtom> ast = cache.get("q2", this::load);
+        assertTrue("evicted logic not parsed again", "q2".equals(ast.get(0).getName()) && loads.get() == 4);
+    }
+
+    @Test
+    public void testFifoEviction() throws Exception {
+        QuestionLogicCache cache = new QuestionLogicCache(2, QuestionLogicCache.EvictionPolicy.FIFO);
+        cache.get("q1", this::load);
+        cache.get("q2", this::load);
+        cache.get("q1", this::load);
+        cache.get("q3", this::load);
+        assertTrue("oldest entry not evicted", !cache.contains("q1") && cache.contains("q2"));
+    }
+
+    @Test
+    public void testUnbounded() throws Exception {
+        QuestionLogicCache cache = new QuestionLogicCache(0, QuestionLogicCache.EvictionPolicy.LRU);
+        for (int i = 0; i < 2000; i++) {
+            cache.get("q" + i, this::load);
+        }
+        assertTrue("entries evicted from unbounded cache", cache.size() == 2000);
+    }
+}
@@ -0,0 +1,108 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.benchmark;
+
+import eu.smesec.cysec.csl.parser.Atom;
+import eu.smesec.cysec.csl.parser.CySeCLineAtom;
+import eu.smesec.cysec.csl.parser.ParserException;
+import eu.smesec.cysec.csl.parser.ParserLine;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Estimates the memory held by the strings of parsed coach logic.
+ *
+ * <p>Every source is parsed separately (as the logic runner does) the given number of times,
+ * simulating several coaches with the same vocabulary on one node. All names and literals of the
+ * resulting ASTs are collected. Without a shared pool every reference is a string of its own, with
+ * the pool only the distinct instances remain. String sizes are estimated for compact strings on a
+ * 64 bit JVM with compressed references.</p>
+ *
+ * <p>Run with the main method from the test classpath (e.g. from within the IDE).</p>
+ */
+public class AstFootprint {
+
+    private AstFootprint() {}
+
+    private static long estimateSize(String s) {
+        // String object (header, value, hash, coder) plus byte array (header, length, data)
+        return 24 + ((16 + s.length() + 7) / 8) * 8;
+    }
+
+    /**
+     * Parses the sources and reports the string footprint of the resulting ASTs.
+     *
+     * @param sources the logic sources
+     * @param copies the number of times every source is parsed
+     * @return the report
+     * @throws ParserException if a source is malformed
+     */
+    public static String measure(List<String> sources, int copies) throws ParserException {
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < copies; i++) {
+            for (String source : sources) {
+                for (CySeCLineAtom line : new ParserLine(source).getCySeCListing()) {
+                    strings.add(line.getName());
+                    Deque<Atom> todo = new ArrayDeque<>(line.getStatements());
+                    todo.push(line.getCond());
+                    while (!todo.isEmpty()) {
+                        Atom a = todo.pop();
+                        if (a.getType() == Atom.AtomType.METHODE) {
+                            strings.add(a.getId());
+                            todo.addAll(a.getParameters());
+                        } else if (a.getType() == Atom.AtomType.STRING) {
+                            // materialize the literal as it would be at run time
+                            strings.add(a.getId());
+                        }
+                    }
+                }
+            }
+        }
+
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        long separateBytes = 0;
+        long pooledBytes = 0;
+        for (String s : strings) {
+            separateBytes += estimateSize(s);
+            if (instances.add(s)) {
+                pooledBytes += estimateSize(s);
+            }
+        }
+        return String.format(
+                "references: %d, separate strings: %d bytes, pooled instances: %d, %d bytes (%.1f%%)",
+                strings.size(),
+                separateBytes,
+                instances.size(),
+                pooledBytes,
+                100.0 * pooledBytes / separateBytes);
+    }
+
+    public static void main(String[] args) throws ParserException {
+        List<String> sources = CoachFixture.getLogicSources(CoachFixture.readCoach("/user_training.xml"));
+        for (int copies : new int[] {1, 10}) {
+            System.out.println("user_training.xml x" + copies + ": " + measure(sources, copies));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.benchmark;
+
+import eu.smesec.cysec.platform.bridge.generated.Metadata;
+import eu.smesec.cysec.platform.bridge.generated.Question;
+import eu.smesec.cysec.platform.bridge.generated.Questionnaire;
+import eu.smesec.cysec.platform.bridge.md.MetadataUtils;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+/**
+ * Loads the fixture coaches of the test resources for the benchmarks.
+ */
+public class CoachFixture {
+
+    public static final String LOGIC_METADATA_KEY = "_cysec.logic";
+
+    private CoachFixture() {}
+
+    /**
+     * Reads a coach from the test resources.
+     *
+     * @param resource the resource path of the coach (e.g. "/user_training.xml")
+     * @return the unmarshalled coach
+     */
+    public static Questionnaire readCoach(String resource) {
+        try (BufferedInputStream is = new BufferedInputStream(CoachFixture.class.getResourceAsStream(resource))) {
+            JAXBContext jc = JAXBContext.newInstance(Questionnaire.class);
+            return (Questionnaire) jc.createUnmarshaller().unmarshal(is);
+        } catch (JAXBException | IOException e) {
+            throw new IllegalStateException("unable to read fixture coach " + resource, e);
+        }
+    }
+
+    /**
+     * Collects all CSL sources of a coach (pre, post, onBegin and the logic of every question).
+     *
+     * @param coach the coach to be inspected
+     * @return the list of logic sources
+     */
+    public static List<String> getLogicSources(Questionnaire coach) {
+        List<Metadata> metadata = new ArrayList<>(coach.getMetadata());
+        for (Question question : coach.getQuestions().getQuestion()) {
+            metadata.addAll(question.getMetadata());
+        }
+        return metadata.stream()
+                .filter(md -> md.getKey().startsWith(LOGIC_METADATA_KEY))
+                .flatMap(md -> MetadataUtils.parseMvalues(md.getMvalue()).values().stream())
+                .map(MetadataUtils.SimpleMvalue::getValue)
+                .filter(code -> code != null && !code.trim().isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Builds a single CSL listing from the logic of a coach repeated the given number of times.
+     *
+     * <p>The fixture coaches are small, so repeating them yields a listing with the size of a real
+     * world coach.</p>
+     *
+     * @param resource the resource path of the coach
+     * @param repetitions the number of copies
+     * @return the listing
+     */
+    public static String getLogicListing(String resource, int repetitions) {
+        String unit = String.join(System.lineSeparator(), getLogicSources(readCoach(resource)));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < repetitions; i++) {
+            sb.append(unit).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
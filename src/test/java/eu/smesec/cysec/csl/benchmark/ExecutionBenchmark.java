@@ -0,0 +1,182 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import eu.smesec.cysec.csl.parser.CoachContext;
+import eu.smesec.cysec.csl.parser.CySeCExecutorContextFactory;
+import eu.smesec.cysec.csl.parser.CySeCLineAtom;
+import eu.smesec.cysec.csl.parser.ExecutorContext;
+import eu.smesec.cysec.csl.parser.ExecutorException;
+import eu.smesec.cysec.csl.parser.ParserException;
+import eu.smesec.cysec.csl.parser.ParserLine;
+import eu.smesec.cysec.platform.bridge.FQCN;
+import eu.smesec.cysec.platform.bridge.ILibCal;
+import eu.smesec.cysec.platform.bridge.execptions.CacheException;
+import eu.smesec.cysec.platform.bridge.generated.Answer;
+import eu.smesec.cysec.platform.bridge.generated.Question;
+import eu.smesec.cysec.platform.bridge.generated.Questionnaire;
+import eu.smesec.cysec.platform.bridge.generated.Questions;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the interpreter with the compiled execution of coach logic.
+ *
+ * <p>The logic resembles the demo coaches of <code>TestLibFramework</code>: every question has lines
+ * depending on selected options and answered questions, adding scores, setting variables and the next
+ * question. The complete listing is executed per operation, once interpreted and once compiled (see
+ * {@link CySeCLineAtom#compile()}). As the cost of such logic is dominated by the answer lookups,
+ * the expression logic variant computes on variables only, showing the overhead of the engine itself. Answers are
+ * served by a mocked library callback (stubbing only, so the mocks do not record the invocations).</p>
+ *
+ * <p>Run with the main method from the test classpath (e.g. from within the IDE). The main method attaches the GC
+ * profiler, <code>gc.alloc.rate.norm</code> reports the bytes allocated per execution of the listing.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(ExecutionBenchmark.class.getName());
+    private static final FQCN FQCN_BENCHMARK = FQCN.fromString("lib-benchmark");
+
+    @Param({"interpreter", "compiled"})
+    public String engine;
+
+    @Param({"coach", "expressions"})
+    public String logic;
+
+    @Param({"50"})
+    public int questions;
+
+    private List<CySeCLineAtom> listing;
+    private ExecutorContext context;
+    private ILibCal cal;
+    private Questionnaire coach;
+    private Question question;
+    private Answer answer;
+
+    /**
+     * Builds the logic of a coach with the given number of questions.
+     *
+     * @param questions the number of questions
+     * @return the listing
+     */
+    public static String getListing(int questions) {
+        StringBuilder sb = new StringBuilder("TRUE : default : { addScore(\"strengthMax\", 100); };\n");
+        for (int q = 0; q < questions; q++) {
+            String qid = "user-q" + q;
+            sb.append("isSelected(\"" + qid + "o1\") : q" + q + "o1 : { addScore(\"strength\", 30); setNext(\"user-q"
+                    + (q + 1) + "\"); };\n");
+            sb.append("and(isAnswered(\"" + qid + "\"), not(isSelected(\"" + qid + "o2\"))) : q" + q
+                    + "a : { addScore(\"knowhow\", if(greaterThan(get(\"level\", 0), 2), 10, 5)); };\n");
+            sb.append("or(isSelected(\"" + qid + "o3\"), equals(get(\"mode\", \"none\"), \"expert\")) : q" + q
+                    + "b : { set(\"level\", 3); };\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Builds logic of the same size computing on variables only.
+     *
+     * @param questions the number of questions
+     * @return the listing
+     */
+    public static String getExpressionListing(int questions) {
+        StringBuilder sb = new StringBuilder("TRUE : default : { set(\"level\", 1); };\n");
+        for (int q = 0; q < questions; q++) {
+            sb.append("and(greaterThanOrEq(get(\"level\", 0), " + (q % 3) + "), not(equals(get(\"mode\", \"none\"), "
+                    + "\"expert\"))) : q" + q + "a : { set(\"level\", if(lowerThan(get(\"level\"), 3), 2, 1)); };\n");
+            sb.append("or(equals(get(\"level\"), " + q + "), xor(TRUE, contains(\"abc\", \"b\"))) : q" + q
+                    + "b : { set(\"sum\", concat(get(\"level\"), \"/\", " + q + ")); };\n");
+        }
+        return sb.toString();
+    }
+
+    @Setup
+    public void setup() throws ParserException, CacheException {
+        String code = "coach".equals(logic) ? getListing(questions) : getExpressionListing(questions);
+        listing = new ParserLine(code).getCySeCListing();
+        if ("compiled".equals(engine)) {
+            listing.forEach(CySeCLineAtom::compile);
+        }
+
+        Questions qs = new Questions();
+        for (int q = 0; q < questions; q++) {
+            Question question = new Question();
+            question.setId("user-q" + q);
+            question.setHidden(false);
+            qs.getQuestion().add(question);
+        }
+        coach = Mockito.mock(Questionnaire.class, withSettings().stubOnly());
+        when(coach.getQuestions()).thenReturn(qs);
+        answer = new Answer();
+        answer.setText("user-q1o1 user-q2o3");
+        cal = Mockito.mock(ILibCal.class, withSettings().stubOnly());
+        when(cal.getAnswer(anyString(), any())).thenReturn(answer);
+
+        context = CySeCExecutorContextFactory.getExecutorContext("benchmark-" + engine);
+        context.reset();
+        question = qs.getQuestion().get(0);
+    }
+
+    @Benchmark
+    public int executeListing() throws ExecutorException {
+        // a run reads the answers afresh (see CoachContext#getAnswers())
+        CoachContext coachContext =
+                new CoachContext(context, cal, question, Optional.of(answer), coach, FQCN_BENCHMARK);
+        coachContext.setLogger(LOGGER);
+        return context.executeQuestion(listing, coachContext);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                        .include(ExecutionBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build())
+                .run();
+    }
+}
@@ -0,0 +1,123 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.benchmark;
+
+import eu.smesec.cysec.csl.parser.CharClass;
+import eu.smesec.cysec.csl.parser.CySeCLineAtom;
+import eu.smesec.cysec.csl.parser.ParserException;
+import eu.smesec.cysec.csl.parser.ParserLine;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the scanner of {@link ParserLine} on the fixture coaches.
+ *
+ * <p>The character class benchmarks report the average cost per scanned character of the
+ * former character list lookups compared to {@link CharClass}. The parse benchmark reports the
+ * cost of parsing the complete listing. Divide the scores by the printed listing length to get the
+ * cost per character.</p>
+ *
+ * <p>Run with the main method from the test classpath (e.g. from within the IDE).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    @SuppressWarnings("deprecation")
+    private static final String TAG_CHARLIST = ParserLine.charlistDifferencer(
+            ParserLine.charlistDifferencer(
+                    ParserLine.charlistDifferencer(
+                            ParserLine.charlistBuilder(48, 122), ParserLine.charlistBuilder(58, 64)),
+                    ParserLine.charlistBuilder(91, 94)),
+            ParserLine.charlistBuilder(96, 96));
+
+    private static final CharClass TAG_CLASS = CharClass.range(48, 122)
+            .minus(CharClass.range(58, 64))
+            .minus(CharClass.range(91, 94))
+            .minus(CharClass.range(96, 96));
+
+    @Param({"/user_training.xml"})
+    public String coach;
+
+    @Param({"1", "50"})
+    public int repetitions;
+
+    private String listing;
+
+    @Setup
+    public void setup() {
+        listing = CoachFixture.getLogicListing(coach, repetitions);
+        System.out.println("scanning " + listing.length() + " characters per operation");
+    }
+
+    @Benchmark
+    public int charlistLookup() {
+        int hits = 0;
+        for (int i = 0; i < listing.length(); i++) {
+            if (TAG_CHARLIST.contains(String.valueOf(listing.charAt(i)))) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int charClassLookup() {
+        int hits = 0;
+        for (int i = 0; i < listing.length(); i++) {
+            if (TAG_CLASS.contains(listing.charAt(i))) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public void parseListing(Blackhole bh) throws ParserException {
+        List<CySeCLineAtom> l = new ParserLine(listing).getCySeCListing();
+        bh.consume(l);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                        .include(ParserBenchmark.class.getSimpleName())
+                        .build())
+                .run();
+    }
+}
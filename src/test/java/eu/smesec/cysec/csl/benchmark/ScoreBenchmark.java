@@ -0,0 +1,114 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.benchmark;
+
+import eu.smesec.cysec.csl.skills.ScoreFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures reading and updating the scores of a coach.
+ *
+ * <p>Every question of the coach contributes a value to every score and caps some of them. Reading reflects the
+ * score lookups of a response (rating, skills, grade and the JSP model), the response itself reverts the scores of one
+ * question and adds them anew before reading them.</p>
+ *
+ * <p>Run with the main method from the test classpath (e.g. from within the IDE).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreBenchmark {
+
+    @Param({"500"})
+    public int questions;
+
+    @Param({"10"})
+    public int scores;
+
+    private ScoreFactory factory;
+    private String[] scoreIds;
+    private String[] questionIds;
+    private int next;
+
+    @Setup
+    public void setup() {
+        factory = new ScoreFactory();
+        scoreIds = new String[scores];
+        for (int s = 0; s < scores; s++) {
+            scoreIds[s] = "score" + s;
+        }
+        questionIds = new String[questions];
+        for (int q = 0; q < questions; q++) {
+            questionIds[q] = "user-q" + q;
+            answer(q);
+        }
+    }
+
+    private void answer(int q) {
+        for (int s = 0; s < scores; s++) {
+            ScoreFactory.Score score = factory.getIntScore(scoreIds[s]);
+            score.add(questionIds[q], (q + s) % 7);
+            if ((q + s) % 50 == 0) {
+                score.cap(questionIds[q], 1000 + q);
+            }
+        }
+    }
+
+    @Benchmark
+    public double readScores() {
+        double sum = 0;
+        for (String id : scoreIds) {
+            sum += factory.getScore(id);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double respond() {
+        int q = next++ % questions;
+        factory.revertQuestion(questionIds[q]);
+        answer(q);
+        return readScores();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                        .include(ScoreBenchmark.class.getSimpleName())
+                        .build())
+                .run();
+    }
+}
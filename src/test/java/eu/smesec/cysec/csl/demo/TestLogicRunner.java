@@ -19,22 +19,33 @@
  */
 package eu.smesec.cysec.csl.demo;
 
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 import static junit.framework.TestCase.fail;
 import static org.mockito.Mockito.mock;
 
 import eu.smesec.cysec.csl.AbstractLib;
+import eu.smesec.cysec.csl.LogicRunner;
 import eu.smesec.cysec.csl.parser.CySeCExecutorContextFactory;
 import eu.smesec.cysec.csl.parser.ExecutorContext;
+import eu.smesec.cysec.platform.bridge.FQCN;
 import eu.smesec.cysec.platform.bridge.ILibCal;
+import eu.smesec.cysec.platform.bridge.generated.Question;
 import eu.smesec.cysec.platform.bridge.generated.Questionnaire;
+import eu.smesec.cysec.platform.bridge.md.MetadataUtils;
 import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Test;
 
 public class TestLogicRunner {
     private ILibCal libcal;
@@ -73,6 +84,78 @@ public class TestLogicRunner {
     }
 
     // Test creation
+    @Test
+    public void testParseErrorReportsQuestionId() {
+        Question question = coach.getQuestions().getQuestion().get(0);
+        question.getMetadata().removeIf(metadata -> metadata.getKey().equals("_cysec.logic"));
+        question.getMetadata()
+                .add(MetadataUtils.createMetadata(
+                        "_cysec.logic",
+                        Collections.singletonList(
+                                MetadataUtils.createMvalueStr("default", "TRUE : broken : addScore(\"s\", 1;"))));
+
+        String lazy = AbstractLib.prop.getProperty("coach.parser.lazy");
+        try {
+            // lazy parsing as well as eager parallel parsing
+            for (String mode : new String[] {"true", "false"}) {
+                AbstractLib.prop.setProperty("coach.parser.lazy", mode);
+                LogicRunner runner =
+                        new LogicRunner(logger, libcal, library, coach.getMetadata(), ForkJoinPool.commonPool());
+                try {
+                    runner.runLogic(question, FQCN.fromString("lib-demo"));
+                    fail("parse error was not reported (lazy=" + mode + ")");
+                } catch (Exception e) {
+                    assertTrue(
+                            "question ID missing in error (" + e.getMessage() + ")",
+                            e.getMessage().contains(question.getId()));
+                }
+            }
+        } finally {
+            if (lazy != null) {
+                AbstractLib.prop.setProperty("coach.parser.lazy", lazy);
+            } else {
+                AbstractLib.prop.remove("coach.parser.lazy");
+            }
+        }
+    }
+
+    @Test
+    public void testLazyTakesPrecedenceOverParallel() {
+        Question question = coach.getQuestions().getQuestion().get(0);
+        question.getMetadata().removeIf(metadata -> metadata.getKey().equals("_cysec.logic"));
+        question.getMetadata()
+                .add(MetadataUtils.createMetadata(
+                        "_cysec.logic",
+                        Collections.singletonList(
+                                MetadataUtils.createMvalueStr("default", "TRUE : broken : addScore(\"s\", 1;"))));
+
+        String lazy = AbstractLib.prop.getProperty("coach.parser.lazy");
+        try {
+            for (String mode : new String[] {"true", "false"}) {
+                AbstractLib.prop.setProperty("coach.parser.lazy", mode);
+                AtomicInteger tasks = new AtomicInteger();
+                Executor executor = task -> {
+                    tasks.incrementAndGet();
+                    task.run();
+                };
+                LogicRunner runner = new LogicRunner(logger, libcal, library, coach.getMetadata(), executor);
+                try {
+                    // the parse error makes sure the logic of the question has been parsed
+                    runner.runLogic(question, FQCN.fromString("lib-demo"));
+                    fail("parse error was not reported (lazy=" + mode + ")");
+                } catch (Exception e) {
+                    int expected = Boolean.parseBoolean(mode) ? 0 : coach.getQuestions().getQuestion().size();
+                    assertEquals("tasks run in parallel (lazy=" + mode + ")", expected, tasks.get());
+                }
+            }
+        } finally {
+            if (lazy != null) {
+                AbstractLib.prop.setProperty("coach.parser.lazy", lazy);
+            } else {
+                AbstractLib.prop.remove("coach.parser.lazy");
+            }
+        }
+    }
 
     // Test onBegin
 
@@ -19,10 +19,17 @@
  */
 package eu.smesec.cysec.csl.demo.skills;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import eu.smesec.cysec.csl.parser.CySeCExecutorContextFactory;
 import eu.smesec.cysec.csl.parser.ExecutorContext;
+import eu.smesec.cysec.csl.skills.ScoreFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import org.junit.Test;
 
 public class TestScoreFactory {
@@ -82,4 +89,77 @@ public class TestScoreFactory {
                         + context.getScore("test1").getValue() + ")",
                 context.getScore("test1").getValue() == 4);
     }
+
+    @Test
+    public void testRevertCaps() {
+        ScoreFactory.Score score = new ScoreFactory.Score("test");
+        score.add("qid1", 10);
+        score.cap("qid1", 8);
+        score.cap("qid2", 5);
+        score.cap("qid3", 5);
+        assertEquals(5, score.getValue(), 0);
+        score.revertQuestion("qid2");
+        assertEquals(5, score.getValue(), 0);
+        score.revertQuestion("qid3");
+        assertEquals(8, score.getValue(), 0);
+        score.cap("QID1", 3);
+        assertEquals(3, score.getValue(), 0);
+        score.revertQuestion("qid1");
+        assertEquals(0, score.getValue(), 0);
+        score.add(null, 4);
+        assertEquals(4, score.getValue(), 0);
+    }
+
+    @Test
+    public void testRevertAcrossScores() {
+        ScoreFactory factory = new ScoreFactory();
+        factory.addQuestionScore("a", "user-qa", ScoreFactory.ScoreType.VALUE, 2);
+        factory.addQuestionScore("b", "user-qb", ScoreFactory.ScoreType.VALUE, 3);
+        factory.addQuestionScore("b", "user-qa", ScoreFactory.ScoreType.CAP, 1);
+        // questions never contributing to any score are ignored
+        factory.revertQuestion("user-q-never-scored");
+        assertEquals(2, factory.getScore("a"), 0);
+        assertEquals(1, factory.getScore("b"), 0);
+        factory.revertQuestion("USER-QA");
+        assertEquals(0, factory.getScore("a"), 0);
+        assertEquals(3, factory.getScore("b"), 0);
+        factory.reset();
+        assertEquals(0, factory.getScore("b"), 0);
+    }
+
+    @Test
+    public void testRunningTotals() {
+        // compares with the sum of the contributions of the remaining questions over many runs
+        Random random = new Random(4711);
+        ScoreFactory.Score score = new ScoreFactory.Score("test");
+        Map<String, List<Double>> values = new HashMap<>();
+        Map<String, List<Double>> caps = new HashMap<>();
+        for (int run = 0; run < 10000; run++) {
+            String qid = "qid" + random.nextInt(20);
+            score.revertQuestion(qid);
+            values.put(qid, new ArrayList<>());
+            caps.put(qid, new ArrayList<>());
+            for (int i = random.nextInt(4); i > 0; i--) {
+                double value = random.nextDouble() * 10 - 2;
+                score.add(qid, value);
+                values.get(qid).add(value);
+            }
+            if (random.nextInt(5) == 0) {
+                double cap = random.nextDouble() * 50;
+                score.cap(qid, cap);
+                caps.get(qid).add(cap);
+            }
+
+            double total = values.values().stream()
+                    .flatMap(List::stream)
+                    .mapToDouble(Double::doubleValue)
+                    .sum();
+            double minCap = caps.values().stream()
+                    .flatMap(List::stream)
+                    .mapToDouble(Double::doubleValue)
+                    .min()
+                    .orElse(Double.MAX_VALUE);
+            assertEquals("run " + run, Math.min(minCap, total), score.getValue(), 1e-9);
+        }
+    }
 }
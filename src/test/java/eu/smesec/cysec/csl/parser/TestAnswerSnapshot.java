@@ -0,0 +1,87 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import eu.smesec.cysec.platform.bridge.generated.Answer;
+import org.junit.Test;
+
+public class TestAnswerSnapshot extends AbstractTestCommands {
+
+    private Atom execute(String code) throws Exception {
+        return new ParserLine(code.replace('`', '"') + ";").getAtom().execute(coachContext);
+    }
+
+    @Test
+    public void testAnswersAreLoadedOnce() throws Exception {
+        when(cal.getAnswer(anyString(), anyString())).thenReturn(answer);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(execute("isSelected(`user-q20o1`)").isTrue(coachContext));
+            assertTrue(execute("isAnswered(`user-q20`)").isTrue(coachContext));
+        }
+        verify(cal, times(1)).getAnswer(anyString(), eq("user-q20"));
+
+        // copies of the context share the snapshot
+        assertTrue(coachContext.copy().getAnswers() == coachContext.getAnswers());
+        assertTrue(coachContext.copy().getAnswers().getAnswer("user-q20") == answer);
+        verify(cal, times(1)).getAnswer(anyString(), eq("user-q20"));
+    }
+
+    @Test
+    public void testSelectedOptions() throws Exception {
+        Answer multiple = new Answer();
+        multiple.setQid("user-q20");
+        multiple.setText("user-q20HTTP");
+        multiple.setAidList("user-q20HTTPS  user-q20o3");
+        when(cal.getAnswer(anyString(), eq("user-q20"))).thenReturn(multiple);
+        assertEquals(2, coachContext.getAnswers().getSelectedOptions("user-q20").size());
+        assertTrue(execute("isSelected(`user-q20o3`)").isTrue(coachContext));
+        assertFalse("option matched partially", execute("isSelected(`user-q20HTTP`)").isTrue(coachContext));
+        assertTrue(coachContext.getAnswers().getSelectedOptions("user-q21").isEmpty());
+    }
+
+    @Test
+    public void testSetAnswerInvalidates() throws Exception {
+        when(cal.getAnswer(anyString(), eq("user-q20"))).thenReturn(answer);
+        assertTrue(execute("isSelected(`user-q20o1`)").isTrue(coachContext));
+
+        // the answer held by the library is changed
+        execute("setAnswer(`user-q20`, `user-q20o2`)");
+        assertTrue(execute("isSelected(`user-q20o2`)").isTrue(coachContext));
+        assertFalse(execute("isSelected(`user-q20o1`)").isTrue(coachContext));
+        verify(cal, times(2)).getAnswer(anyString(), eq("user-q20"));
+    }
+
+    @Test
+    public void testMissingAnswer() throws Exception {
+        assertNull(coachContext.getAnswers().getAnswer("user-q20"));
+        assertFalse(execute("isSelected(`user-q20o1`)").isTrue(coachContext));
+        verify(cal, times(1)).getAnswer(anyString(), eq("user-q20"));
+    }
+}
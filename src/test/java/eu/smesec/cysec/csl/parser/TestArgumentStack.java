@@ -0,0 +1,108 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class TestArgumentStack extends AbstractTestCommands {
+
+    @Test
+    public void testNestedFrames() {
+        ArgumentStack stack = ArgumentStack.get();
+        ArgumentFrame outer = stack.open();
+        outer.push(Atom.TRUE);
+        ArgumentFrame inner = stack.open();
+        inner.push(Atom.FALSE);
+        inner.push(Atom.NULL_ATOM);
+        assertEquals(2, inner.size());
+        assertSame(Atom.FALSE, inner.get(0));
+        inner.release();
+
+        outer.push(Atom.ofInteger(1));
+        assertEquals(2, outer.size());
+        assertSame(Atom.TRUE, outer.get(0));
+        assertEquals("1", outer.get(1).getId());
+        try {
+            outer.get(2);
+            fail("read beyond the frame");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        outer.release();
+    }
+
+    @Test
+    public void testPushToOuterFrame() {
+        ArgumentStack stack = ArgumentStack.get();
+        ArgumentFrame outer = stack.open();
+        stack.open();
+        try {
+            outer.push(Atom.TRUE);
+            fail("pushed to a frame below the top");
+        } catch (IllegalStateException e) {
+            // expected
+        } finally {
+            outer.release();
+        }
+    }
+
+    @Test
+    public void testGrowth() {
+        ArgumentStack stack = ArgumentStack.get();
+        ArgumentFrame[] frames = new ArgumentFrame[20];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = stack.open();
+            for (int j = 0; j < 5; j++) {
+                frames[i].push(Atom.ofInteger(i * 5 + j));
+            }
+        }
+        for (int i = 0; i < frames.length; i++) {
+            assertEquals(5, frames[i].size());
+            assertEquals(String.valueOf(i * 5 + 4), frames[i].get(4).getId());
+        }
+        frames[0].release();
+    }
+
+    @Test
+    public void testUnwindOnError() throws Exception {
+        Atom failing = new ParserLine("and(TRUE, or(FALSE, concat(\"a\", not(TRUE, FALSE))));").getAtom();
+        try {
+            AstCompiler.compile(failing).evaluate(coachContext);
+            fail("compiled evaluation has not failed");
+        } catch (ExecutorException e) {
+            // expected
+        }
+        try {
+            failing.execute(coachContext);
+            fail("interpretation has not failed");
+        } catch (ExecutorException e) {
+            // expected
+        }
+        // all frames have been released, so a new frame is the outermost one
+        ArgumentFrame frame = ArgumentStack.get().open();
+        assertEquals(0, frame.index);
+        assertEquals(0, frame.offset);
+        frame.release();
+    }
+}
@@ -0,0 +1,151 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.Test;
+
+public class TestAstCompiler extends AbstractTestCommands {
+
+    private static final String[] EXPRESSIONS = {
+        "TRUE",
+        "42",
+        "and(TRUE, not(FALSE), or(FALSE, TRUE))",
+        "xor(TRUE, TRUE)",
+        "if(greaterThan(2, 1.5), concat(`a`, 1), `b`)",
+        "if(lowerThan(2, 1.5), `a`)",
+        "if(TRUE, get(`inexistent`))",
+        "equals(1, 1.0)",
+        "greaterThanOrEq(get(`x`), 3)",
+        "isSelected(`user-q20o1`)",
+        "and(isAnswered(`user-q20`), not(isSelected(`user-q20o2`)))",
+        "contains(concat(`ab`, `cd`), `bc`)",
+        "tn(`key-abc`)",
+    };
+
+    private static Atom parse(String code) throws ParserException {
+        return new ParserLine(code.replace('`', '"') + ";").getAtom();
+    }
+
+    @Test
+    public void testSameResults() throws Exception {
+        when(cal.getAnswer(anyString(), anyString())).thenReturn(answer);
+        context.setVariable("x", Atom.ofInteger(3), null);
+        for (String code : EXPRESSIONS) {
+            Atom atom = parse(code);
+            Atom interpreted = atom.execute(coachContext);
+            Atom compiled = AstCompiler.compile(atom).evaluate(coachContext);
+            assertEquals("type of " + code, interpreted.getType(), compiled.getType());
+            assertEquals("value of " + code, interpreted.getId(), compiled.getId());
+        }
+    }
+
+    @Test
+    public void testSameErrors() throws Exception {
+        String[] failing = {"not(TRUE, FALSE)", "if(`a`, 1, 2)", "if(TRUE)", "and(TRUE, `a`)"};
+        for (String code : failing) {
+            Atom atom = parse(code);
+            String interpreted = null;
+            String compiled = null;
+            try {
+                atom.execute(coachContext);
+                fail("interpreting " + code + " has not failed");
+            } catch (ExecutorException e) {
+                interpreted = e.getMessage();
+            }
+            try {
+                AstCompiler.compile(atom).evaluate(coachContext);
+                fail("evaluating the compiled " + code + " has not failed");
+            } catch (ExecutorException e) {
+                compiled = e.getMessage();
+            }
+            assertEquals("error of " + code, interpreted, compiled);
+        }
+    }
+
+    @Test
+    public void testShortCircuit() throws Exception {
+        String[][] expressions = {
+            {"and(FALSE, not(TRUE, FALSE))", "FALSE"},
+            {"or(TRUE, not(TRUE, FALSE))", "TRUE"},
+            {"xor(TRUE, TRUE, not(TRUE, FALSE))", "FALSE"},
+            {"and(TRUE, or(FALSE, TRUE), equals(1, 1))", "TRUE"},
+            {"or(FALSE, isAnswered(`user-q20`), isSelected(`user-q21o1`))", "TRUE"},
+        };
+        when(cal.getAnswer(anyString(), anyString())).thenReturn(answer);
+        for (String[] expression : expressions) {
+            Atom atom = parse(expression[0]);
+            assertEquals("interpreted " + expression[0], expression[1], atom.execute(coachContext).getId());
+            assertEquals(
+                    "compiled " + expression[0],
+                    expression[1],
+                    AstCompiler.compile(atom).evaluate(coachContext).getId());
+        }
+        // isSelected is never reached
+        verify(cal, never()).getAnswer(anyString(), eq("user-q21"));
+
+        // an invalid parameter is reported before the result is decided
+        try {
+            parse("and(`a`, FALSE)").execute(coachContext);
+            fail("invalid parameter has not been reported");
+        } catch (ExecutorException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDeepExpression() throws Exception {
+        StringBuilder code = new StringBuilder();
+        int depth = AstCompiler.MAX_DEPTH * 3;
+        for (int i = 0; i < depth; i++) {
+            code.append("not(");
+        }
+        code.append("FALSE");
+        for (int i = 0; i < depth; i++) {
+            code.append(")");
+        }
+        Atom compiled = AstCompiler.compile(parse(code.toString())).evaluate(coachContext);
+        assertEquals("deep expression evaluated wrongly", "FALSE", compiled.getId());
+    }
+
+    @Test
+    public void testCompiledListing() throws Exception {
+        String code = "and(TRUE, not(FALSE)) : a : { set(`y`, 2); addScore(`s`, if(greaterThan(get(`y`), 1), 5, 3)); };"
+                + "FALSE : b : { addScore(`s`, 7); };"
+                + "TRUE : a : { addScore(`s`, 11); };";
+        List<CySeCLineAtom> l = new ParserLine(code.replace('`', '"')).getCySeCListing();
+        l.forEach(CySeCLineAtom::compile);
+        assertTrue("line has not been compiled", l.get(0).isCompiled());
+        context.executeQuestion(l, coachContext);
+        assertNotNull("score has not been set", context.getScore("s"));
+        assertEquals(5, context.getScore("s").getValue(), 1e-6);
+        assertEquals("variable has not been set", 2L, context.getVariable("y", null).getLongValue());
+    }
+}
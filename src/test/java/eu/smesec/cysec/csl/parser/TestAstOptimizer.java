@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class TestAstOptimizer extends AbstractTestCommands {
+
+    private List<CySeCLineAtom> optimize(String code) throws ParserException {
+        return new AstOptimizer().optimize(new ParserLine(code.replace('`', '"')).getCySeCListing());
+    }
+
+    @Test
+    public void testFoldConditions() throws ParserException {
+        List<CySeCLineAtom> l = optimize("and(TRUE, not(FALSE)) : a : { addScore(`s`, 1); };"
+                + "or(FALSE, equals(1, 2)) : b : { addScore(`s`, 2); };"
+                + "isSelected(`user-q20o1`) : c : { addScore(`s`, 3); };");
+        assertEquals("line with a FALSE condition has not been dropped", 2, l.size());
+        assertEquals("TRUE condition has not been inlined", "TRUE", l.get(0).getCond().toString());
+        assertEquals("folded condition has lost its position", "line 1, column 1", l.get(0).getLocation());
+        assertEquals("impure condition has been folded", Atom.AtomType.METHODE, l.get(1).getCond().getType());
+    }
+
+    @Test
+    public void testFoldParameters() throws ParserException {
+        List<CySeCLineAtom> l = optimize("TRUE : a : { set(`x`, concat(`a`, `b`)); addScore(tn(`key-abc`), if("
+                + "greaterThan(2, 1.5), 5, 3)); };");
+        Atom set = l.get(0).getStatements().get(0);
+        Atom addScore = l.get(0).getStatements().get(1);
+        assertEquals("side effects must not be folded", Atom.AtomType.METHODE, set.getType());
+        assertEquals("concat has not been folded", "ab", set.getParameters().get(1).getId());
+        // the dictionary is replaced along with the questionnaire
+        assertEquals("tn has been folded", Atom.AtomType.METHODE, addScore.getParameters().get(0).getType());
+        assertEquals("if has not been folded", 5L, addScore.getParameters().get(1).getLongValue());
+    }
+
+    @Test
+    public void testFoldTail() throws ParserException {
+        Atom cond = optimize("if(TRUE, not(isAnswered(`user-q20`)), FALSE) : a : { addScore(`s`, 1); };")
+                .get(0)
+                .getCond();
+        assertEquals("if with a branch of an impure command has been folded", "if", cond.getId());
+
+        // the branch may evaluate to null, which if reports as FALSE
+        cond = optimize("if(TRUE, get(`x`)) : a : { addScore(`s`, 1); };").get(0).getCond();
+        assertEquals("branch of an impure command has replaced if", "if", cond.getId());
+
+        // literal branches
+        assertTrue(
+                "if over literals has not been folded",
+                optimize("if(TRUE, not(TRUE), TRUE) : a : { addScore(`s`, 1); };").isEmpty());
+    }
+
+    @Test
+    public void testFoldShortCircuit() throws ParserException {
+        List<CySeCLineAtom> l = optimize("and(FALSE, isAnswered(`user-q20`)) : a : { addScore(`s`, 1); };"
+                + "or(not(FALSE), isAnswered(`user-q20`)) : b : { addScore(`s`, 2); };"
+                + "and(TRUE, isAnswered(`user-q20`)) : c : { addScore(`s`, 3); };");
+        assertEquals("line decided to FALSE has not been dropped", 2, l.size());
+        assertEquals("line decided to TRUE has not been inlined", "TRUE", l.get(0).getCond().toString());
+        assertEquals("undecided short circuit has been folded", "and", l.get(1).getCond().getId());
+    }
+
+    @Test
+    public void testKeepFailingExpressions() throws ParserException {
+        List<CySeCLineAtom> l = optimize("not(TRUE, FALSE) : a : { addScore(`s`, 1); };");
+        assertEquals("failing condition has been folded", "not", l.get(0).getCond().getId());
+    }
+
+    @Test
+    public void testUnchangedLinesAreReused() throws ParserException {
+        List<CySeCLineAtom> parsed = new ParserLine("isAnswered(\"user-q20\") : a : { addScore(\"s\", 1); };")
+                .getCySeCListing();
+        List<CySeCLineAtom> l = new AstOptimizer().optimize(parsed);
+        assertSame("unchanged line has been copied", parsed.get(0), l.get(0));
+    }
+
+    @Test
+    public void testOptimizedLogicExecutes() throws ParserException, ExecutorException {
+        context.reset();
+        context.executeQuestion(
+                optimize("and(TRUE, not(FALSE)) : a : { addScore(`s`, if(lowerThan(1, 2), 5, 3)); };"
+                        + "FALSE : b : { addScore(`s`, 7); };"
+                        + "TRUE : a : { addScore(`s`, 11); };"),
+                coachContext);
+        assertNotNull("score has not been set", context.getScore("s"));
+        assertTrue("unexpected score " + context.getScore("s").getValue(), context.getScore("s").getValue() == 5);
+    }
+}
@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Vector;
+import org.junit.Test;
+
+public class TestAstSerializer {
+
+    private static byte[] serialize(List<CySeCLineAtom> program) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        AstSerializer.write(program, new DataOutputStream(bos));
+        return bos.toByteArray();
+    }
+
+    private static List<CySeCLineAtom> deserialize(byte[] data) throws IOException {
+        return AstSerializer.read(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        String code = "isSelected(\"q1o1\") : q1 : { addScore(\"s\", -5); set(\"v\", 2.5); };\r\n"
+                + "and(TRUE, not(FALSE), NULL) : q2 : parent.set(\"ä\", concat(\"a\", \"b\"));\r\n"
+                + "TRUE : q3 : root.print();";
+        List<CySeCLineAtom> program = new ParserLine(code).getCySeCListing();
+        List<CySeCLineAtom> restored = AstSerializer.read(
+                new DataInputStream(new ByteArrayInputStream(serialize(program))), new SourceText(code));
+        assertTrue("number of lines differs", restored.size() == program.size());
+        for (int i = 0; i < program.size(); i++) {
+            CySeCLineAtom expected = program.get(i);
+            CySeCLineAtom actual = restored.get(i);
+            assertTrue("name differs", expected.getName().equals(actual.getName()));
+            assertTrue(
+                    "condition differs (" + actual.getCond() + ")",
+                    expected.getCond().toString().equals(actual.getCond().toString()));
+            assertTrue(
+                    "statements differ (" + actual.getStatements() + ")",
+                    expected.getStatements().toString().equals(actual.getStatements().toString()));
+        }
+        assertTrue("position lost", "line 2, column 1".equals(restored.get(1).getLocation()));
+        Atom set = restored.get(1).getStatements().get(0);
+        assertTrue("parent pointer lost", set.getParentPointer() == 1);
+        assertTrue("root pointer lost", restored.get(2).getStatements().get(0).getParentPointer() == -1);
+        assertTrue(
+                "literal value lost",
+                restored.get(0).getStatements().get(0).getParameters().get(1).getLongValue() == -5);
+    }
+
+    @Test
+    public void testDeepNesting() throws Exception {
+        Atom atom = Atom.TRUE;
+        for (int i = 0; i < 10000; i++) {
+            List<Atom> parameters = new Vector<>();
+            parameters.add(atom);
+            atom = new Atom(Atom.AtomType.METHODE, "not", parameters);
+        }
+        List<CySeCLineAtom> program =
+                Collections.singletonList(new CySeCLineAtom(atom, "deep", new Atom[] {Atom.NULL_ATOM}));
+        Atom restored = deserialize(serialize(program)).get(0).getCond();
+        int depth = 0;
+        while (restored.getType() == Atom.AtomType.METHODE) {
+            restored = restored.getParameters().get(0);
+            depth++;
+        }
+        assertTrue("nesting depth differs (" + depth + ")", depth == 10000 && "TRUE".equals(restored.getId()));
+    }
+
+    @Test
+    public void testNullStrings() throws Exception {
+        Atom empty = new Atom(Atom.AtomType.STRING, null, null);
+        List<CySeCLineAtom> program = Collections.singletonList(new CySeCLineAtom(Atom.TRUE, null, new Atom[] {empty}));
+        CySeCLineAtom restored = deserialize(serialize(program)).get(0);
+        assertTrue("name differs", restored.getName() == null);
+        Atom statement = restored.getStatements().get(0);
+        assertTrue(
+                "string without a value differs",
+                statement.getType() == Atom.AtomType.STRING && statement.peekId() == null);
+    }
+
+    @Test
+    public void testRejectsOtherVersion() throws Exception {
+        byte[] data = serialize(new ParserLine("TRUE : q1 : print(\"x\");").getCySeCListing());
+        data[7]++;
+        try {
+            deserialize(data);
+            fail("entry of another format version accepted");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestCharClass {
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testMatchesCharlist() {
+        String charlist = ParserLine.charlistDifferencer(
+                ParserLine.charlistDifferencer(ParserLine.charlistBuilder(1, 255), "\r\n"), "\"\\");
+        CharClass charClass =
+                CharClass.range(1, 255).minus(CharClass.of("\r\n")).minus(CharClass.of("\"\\"));
+        assertEquals(charlist, charClass.toCharlist());
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            assertEquals("membership differs for " + c, charlist.indexOf(c) >= 0, charClass.contains((char) c));
+        }
+    }
+
+    @Test
+    public void testSetOperations() {
+        CharClass digits = CharClass.range('0', '9');
+        CharClass sign = CharClass.of("+-");
+        assertTrue(digits.union(sign).contains('-'));
+        assertTrue(digits.union(sign).contains('7'));
+        assertFalse(digits.minus(CharClass.of("7")).contains('7'));
+        assertFalse(digits.contains(ParserLine.EOF));
+        assertFalse(CharClass.of("€").contains('€'));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalRange() {
+        CharClass.range(10, 256);
+    }
+}
@@ -902,6 +902,65 @@ public class TestCommands extends AbstractTestCommands {
         assertEquals(5, context.getScore("s").getValue(), 1e-6);
     }
 
+    @Test
+    public void testTypedComparisons() throws ExecutorException {
+        Command greaterThan = new CommandGreaterThan();
+        Command lowerThanOrEq = new CommandLowerThanOrEquals();
+        Command equals = new CommandEquals();
+
+        assertTrue(
+                "2 > 1.5",
+                greaterThan.execute(Arrays.asList(Atom.ofInteger(2), Atom.ofFloat(1.5)), coachContext)
+                        .isTrue(coachContext));
+        assertFalse(
+                "-0.0 > 0",
+                greaterThan.execute(Arrays.asList(Atom.ofFloat(-0.0), Atom.ofInteger(0)), coachContext)
+                        .isTrue(coachContext));
+        assertTrue(
+                "Long.MAX_VALUE - 1 <= Long.MAX_VALUE",
+                lowerThanOrEq
+                        .execute(
+                                Arrays.asList(Atom.ofInteger(Long.MAX_VALUE - 1), Atom.ofInteger(Long.MAX_VALUE)),
+                                coachContext)
+                        .isTrue(coachContext));
+        assertFalse(
+                "comparing a string must be false",
+                greaterThan.execute(Arrays.asList(Atom.ofString("3"), Atom.ofInteger(2)), coachContext)
+                        .isTrue(coachContext));
+
+        // atoms built from ids behave like the ones built from values
+        assertTrue(
+                "1.5 == 1.5",
+                equals.execute(
+                                Arrays.asList(Atom.ofFloat(1.5), new Atom(Atom.AtomType.FLOAT, "1.5", null)),
+                                coachContext)
+                        .isTrue(coachContext));
+        assertTrue(
+                "TRUE == TRUE",
+                equals.execute(
+                                Arrays.asList(Atom.TRUE, new Atom(Atom.AtomType.BOOL, "TRUE", null)), coachContext)
+                        .isTrue(coachContext));
+        assertFalse(
+                "1 != 1.0",
+                equals.execute(Arrays.asList(Atom.ofInteger(1), Atom.ofFloat(1.0)), coachContext)
+                        .isTrue(coachContext));
+        assertFalse(
+                "\"1\" != 1",
+                equals.execute(Arrays.asList(Atom.ofString("1"), Atom.ofInteger(1)), coachContext)
+                        .isTrue(coachContext));
+    }
+
+    @Test
+    public void testTypedAtomValues() throws ExecutorException {
+        Atom integer = new Atom(Atom.AtomType.INTEGER, "42", null);
+        assertTrue("integer payload", integer.hasPrimitiveValue() && integer.getLongValue() == 42);
+        assertEquals("float id", "2.5", Atom.ofFloat(2.5).getId());
+        assertTrue("boolean payload", Atom.ofBoolean(true).isTrue(coachContext));
+        assertFalse("boolean payload", new Atom(Atom.AtomType.BOOL, "FALSE", null).isTrue(coachContext));
+        assertFalse("malformed literal", new Atom(Atom.AtomType.INTEGER, "4x", null).hasPrimitiveValue());
+        assertThrows(ExecutorException.class, () -> new Atom(Atom.AtomType.BOOL, "MAYBE", null).isTrue(coachContext));
+    }
+
     @Test
     public void testSetAnswerCommand() {
         Command.registerCommand("setAnswer", new CommandSetAnswer());
@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestConditionIndex extends AbstractTestCommands {
+
+    @Before
+    public void setupAnswers() throws Exception {
+        when(cal.getAnswer(anyString(), anyString())).thenReturn(answer);
+    }
+
+    private static List<CySeCLineAtom> parse(String code) throws ParserException {
+        return new ParserLine(code.replace('`', '"')).getCySeCListing();
+    }
+
+    @Test
+    public void testCandidates() throws Exception {
+        ConditionIndex index = new ConditionIndex(parse("isSelected(`user-q20o1`) : a : { set(`v`, 1); };"
+                + "isSelected(`user-q20o2`) : b : { set(`v`, 2); };"
+                + "isAnswered(`user-q20`) : c : { set(`v`, 3); };"
+                + "and(TRUE, isSelected(`user-q20o2`)) : d : { set(`v`, 4); };"
+                + "isSelected(`user-q99o1`) : e : { set(`v`, 5); };"));
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2, 5);
+        assertEquals("wrong candidates", expected, index.getCandidates(coachContext));
+
+        // lines of unknown questions are left to fail
+        question.setHidden(true);
+        expected.clear(0, 3);
+        assertEquals("wrong candidates of a hidden question", expected, index.getCandidates(coachContext));
+    }
+
+    @Test
+    public void testUpdateCandidates() throws Exception {
+        ConditionIndex index = new ConditionIndex(parse("isSelected(`user-q20o1`) : a : { set(`v`, 1); };"
+                + "isSelected(`user-q21o1`) : b : { set(`v`, 2); };"
+                + "isAnswered(`user-q20`) : c : { set(`v`, 3); };"));
+        BitSet candidates = index.getCandidates(coachContext);
+        question.setHidden(true);
+        // changes of other questions leave the candidates as they are
+        index.updateCandidates(candidates, "user-q21", coachContext);
+        assertEquals(3, candidates.cardinality());
+        index.updateCandidates(candidates, "user-q20", coachContext);
+        assertEquals("lines of the hidden question are still candidates", 1, candidates.cardinality());
+        assertEquals(1, candidates.nextSetBit(0));
+    }
+
+    @Test
+    public void testFirstMatch() throws Exception {
+        List<CySeCLineAtom> l = parse("isSelected(`user-q20o2`) : a : { set(`v`, 1); };"
+                + "isSelected(`user-q20o1`) : a : { set(`v`, 2); };"
+                + "TRUE : a : { set(`v`, 3); };"
+                + "isAnswered(`user-q20`) : b : { set(`w`, 4); };");
+        context.executeIndexedQuestion(Collections.singletonList(new ConditionIndex(l)), coachContext);
+        assertEquals(
+                "first matching line has not been executed",
+                2L,
+                context.getVariable("v", "user-q20").getLongValue());
+        assertEquals(4L, context.getVariable("w", "user-q20").getLongValue());
+    }
+
+    @Test
+    public void testChangedWithinRun() throws Exception {
+        List<CySeCLineAtom> pre = parse("TRUE : a : { setHidden(`user-q20`, TRUE); };");
+        List<CySeCLineAtom> post = parse("isSelected(`user-q20o1`) : b : { set(`v`, 1); };"
+                + "TRUE : c : { setHidden(`user-q20`, FALSE); };"
+                + "isSelected(`user-q20o1`) : d : { set(`w`, 1); };");
+        context.executeIndexedQuestion(Arrays.asList(new ConditionIndex(pre), new ConditionIndex(post)), coachContext);
+        assertSame("line of a hidden question has been executed", Atom.NULL_ATOM, context.getVariable("v", "user-q20"));
+        assertEquals(
+                "line of a question made visible has not been executed",
+                1L,
+                context.getVariable("w", "user-q20").getLongValue());
+    }
+}
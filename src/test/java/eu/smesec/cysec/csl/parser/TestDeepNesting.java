@@ -0,0 +1,138 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertTrue;
+
+import eu.smesec.cysec.platform.bridge.ILibCal;
+import eu.smesec.cysec.platform.bridge.generated.Question;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestDeepNesting {
+    private static final int DEPTH = 10000;
+
+    private CoachContext coachContext;
+
+    @Before
+    public void setup() {
+        Question question = Mockito.mock(Question.class);
+        Mockito.when(question.getId()).thenReturn("qid1");
+        ExecutorContext context = CySeCExecutorContextFactory.getExecutorContext("deepCoach");
+        context.reset();
+        coachContext = new CoachContext(context, Mockito.mock(ILibCal.class), question, null, null, null);
+        coachContext.setLogger(Logger.getGlobal());
+    }
+
+    /**
+     * Builds prefix + (DEPTH times open) + inner + (DEPTH times close).
+     */
+    private static String nest(String open, String inner, String close) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < DEPTH; i++) {
+            sb.append(open);
+        }
+        sb.append(inner);
+        for (int i = 0; i < DEPTH; i++) {
+            sb.append(close);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses and executes an expression on a thread with a small stack, so any recursion per
+     * nesting level fails the test.
+     */
+    private Atom parseAndExecute(String code) throws Exception {
+        return runDeep(() -> {
+            Atom atom = new ParserLine(code).getAtom();
+            // printing has to cope with the depth as well
+            atom.toString();
+            return atom.execute(coachContext);
+        });
+    }
+
+    private Atom runDeep(Callable<Atom> task) throws Exception {
+        AtomicReference<Object> result = new AtomicReference<>();
+        Thread t = new Thread(
+                null,
+                () -> {
+                    try {
+                        result.set(task.call());
+                    } catch (Throwable e) {
+                        result.set(e);
+                    }
+                },
+                "deep",
+                128 * 1024);
+        t.start();
+        t.join();
+        if (result.get() instanceof Throwable) {
+            throw new AssertionError("evaluation failed", (Throwable) result.get());
+        }
+        return (Atom) result.get();
+    }
+
+    @Test
+    public void testDeepBooleanOps() throws Exception {
+        Atom a = parseAndExecute(nest("not(", "TRUE", ")"));
+        assertTrue("not chain evaluated wrongly", "TRUE".equals(a.getId()));
+        a = parseAndExecute(nest("and(TRUE, or(FALSE, ", "TRUE", "))"));
+        assertTrue("and/or chain evaluated wrongly", "TRUE".equals(a.getId()));
+    }
+
+    @Test
+    public void testDeepConcat() throws Exception {
+        Atom a = parseAndExecute(nest("concat(\"a\", ", "\"b\"", ")"));
+        assertTrue("concat chain evaluated wrongly", a.getId().length() == DEPTH + 1 && a.getId().endsWith("ab"));
+    }
+
+    @Test
+    public void testDeepIf() throws Exception {
+        // nested in the branches
+        Atom a = parseAndExecute(nest("if(FALSE, \"no\", if(TRUE, ", "\"yes\"", ", \"no\"))"));
+        assertTrue("if chain in branches evaluated wrongly", "yes".equals(a.getId()));
+        // nested in the condition
+        a = parseAndExecute(nest("if(", "TRUE", ", TRUE, FALSE)"));
+        assertTrue("if chain in condition evaluated wrongly", "TRUE".equals(a.getId()));
+    }
+
+    @Test
+    public void testDeepFolding() throws Exception {
+        String code = nest("not(", "TRUE", ")");
+        Atom a = runDeep(() -> new AstOptimizer().fold(new ParserLine(code).getAtom()));
+        assertTrue("not chain folded wrongly", a.getType() == Atom.AtomType.BOOL && "TRUE".equals(a.getId()));
+    }
+
+    @Test
+    public void testDeepListing() throws Exception {
+        String code = nest("and(TRUE, ", "TRUE", ")") + " : deep : set(\"deep\", " + nest("not(", "FALSE", ")") + ");";
+        List<CySeCLineAtom> lines = new ParserLine(code).getCySeCListing();
+        coachContext.getContext().executeQuestion(lines, coachContext);
+        assertTrue(
+                "deep line not executed",
+                "FALSE".equals(coachContext.getContext().getVariable("deep", null).getId()));
+    }
+}
@@ -407,4 +407,88 @@ public class TestParserBasicFunctionality {
             fail("got unexpected exception");
         }
     }
+
+    @Test
+    public void testScannerCursor() throws Exception {
+        ParserLine p = new ParserLine("  and(TRUE) // comment\r\n");
+        assertTrue("leading blanks not skipped", p.skipNoFunc() == 2);
+        assertTrue("peek returned wrong character", p.peek() == 'a' && p.peek(3) == '(');
+        assertTrue("lookahead failed", p.lookingAt("and("));
+        assertTrue("peek moved the cursor", p.getPosition() == 2);
+        p.getAtom();
+        assertTrue("trailing comment not consumed", !p.hasMore());
+        assertTrue("EOF not signalled", p.peek() == ParserLine.EOF && p.snoopBytes(1) == null);
+    }
+
+    @Test
+    public void testLargeListing() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("isSelected(\"user-q" + i + "o1\") : q" + i + " : {\r\n");
+            sb.append("    addScore(\"strength\", 3); // some remark\r\n");
+            sb.append("};\r\n");
+        }
+        List<CySeCLineAtom> l = new ParserLine(sb.toString()).getCySeCListing();
+        assertTrue("unexpected number of lines (" + l.size() + ")", l.size() == 5000);
+        assertTrue(
+                "last line not parsed properly",
+                "q4999".equals(l.get(4999).getName())
+                        && "user-q4999o1".equals(l.get(4999).getCond().toString().split("\"")[1]));
+    }
+
+    @Test
+    public void testNumericalLiterals() throws Exception {
+        Atom a = new ParserLine("-.25").getAtom();
+        assertTrue("float not parsed (" + a + ")", a.getType() == Atom.AtomType.FLOAT && "-0.25".equals(a.getId()));
+        assertTrue("float value missing", a.getDoubleValue() == -0.25);
+        a = new ParserLine("+0042").getAtom();
+        assertTrue(
+                "integer not parsed (" + a + ")", a.getType() == Atom.AtomType.INTEGER && "42".equals(a.getId()));
+        assertTrue("integer value missing", a.getLongValue() == 42);
+        a = new ParserLine("-2147483648").getAtom();
+        assertTrue("minimal integer not parsed", a.getLongValue() == Integer.MIN_VALUE);
+        a = new ParserLine("7.").getAtom();
+        assertTrue("dangling decimal point consumed", a.getType() == Atom.AtomType.INTEGER);
+        try {
+            new ParserLine("-21474836480").getAtom();
+            fail("integer out of range not detected");
+        } catch (ParserException pe) {
+            // expected
+        }
+        try {
+            new ParserLine("-x").getAtom();
+            fail("sign without digits not detected");
+        } catch (ParserException pe) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCommandBinding() throws Exception {
+        Atom a = new ParserLine("parent.and(TRUE, not(FALSE))").getAtom();
+        assertTrue("command not bound", a.getCommand() == Command.getCommand("and"));
+        assertTrue("literal bound to a command", new ParserLine("\"and\"").getAtom().getCommand() == null);
+    }
+
+    @Test
+    public void testSourcePositions() throws Exception {
+        String code = "TRUE : q1 : print(\"a\");\r\n"
+                + "  isSelected(\"q2o1\") : q2 : set(\"v\", \"say \\\"hi\\\"\");\r\n";
+        List<CySeCLineAtom> l = new ParserLine(code).getCySeCListing();
+        Atom cond = l.get(1).getCond();
+        assertTrue(
+                "wrong location (" + l.get(1).getLocation() + ")",
+                "line 2, column 3".equals(l.get(1).getLocation()));
+        assertTrue(
+                "wrong extent of methode",
+                "isSelected(\"q2o1\")".equals(code.substring(cond.getStart(), cond.getEnd())));
+        Atom set = l.get(1).getStatements().get(0);
+        Atom escaped = set.getParameters().get(1);
+        assertTrue(
+                "wrong extent of literal",
+                "\"say \\\"hi\\\"\"".equals(code.substring(escaped.getStart(), escaped.getEnd())));
+        assertTrue("escaped literal broken", "say \"hi\"".equals(escaped.getId()));
+        assertTrue("plain literal broken", "q2o1".equals(cond.getParameters().get(0).getId()));
+        assertTrue("atom not printed properly", "set( \"v\", \"say \"hi\"\" )".equals(set.toString()));
+    }
 }
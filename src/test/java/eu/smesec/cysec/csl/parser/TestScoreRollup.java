@@ -0,0 +1,198 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import eu.smesec.cysec.csl.parser.CySeCExecutorContextFactory.CySeCExecutorContext;
+import eu.smesec.cysec.csl.skills.ScoreRollup;
+import eu.smesec.cysec.platform.bridge.FQCN;
+import eu.smesec.cysec.platform.bridge.generated.Question;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
+import org.junit.Test;
+
+public class TestScoreRollup extends AbstractTestCommands {
+
+    @Test
+    public void testRollup() {
+        ScoreRollup rollup = new ScoreRollup();
+        rollup.add("lib-sub.a", Collections.singletonMap("Strength", 10d));
+        rollup.add("lib-sub.b", Collections.singletonMap("strength", 5d));
+        rollup.add("lib-sub.a", Collections.singletonMap("strength", -3d));
+        assertEquals(12, rollup.getTotal("STRENGTH"), 0);
+        assertEquals(7, rollup.getInstances().get("lib-sub.a").get("strength"), 0);
+        rollup.remove("lib-sub.a");
+        assertEquals(5, rollup.getTotal("strength"), 0);
+        rollup.remove("lib-sub.b");
+        assertTrue(rollup.getTotals().isEmpty());
+        assertEquals(0, rollup.getTotal("knowhow"), 0);
+    }
+
+    @Test
+    public void testSubcoachDeltas() throws Exception {
+        CySeCExecutorContext parent = CySeCExecutorContextFactory.getExecutorContext("test-rollup-parent");
+        CySeCExecutorContext root = CySeCExecutorContextFactory.getExecutorContext("test-rollup-root");
+        context.setParent(parent);
+        parent.setParent(root);
+        try {
+            List<CySeCLineAtom> l = new ParserLine(
+                            "TRUE : a : { addScore(\"strength\", 1); parent.addScore(\"strength\", 10); "
+                                    + "root.addScore(\"knowhow\", 3); };")
+                    .getCySeCListing();
+            CoachContext first = instanceContext("user-q20", "lib-user.lib-sub.first");
+            context.executeQuestion(l, first);
+            // running the question again replaces its contribution
+            context.executeQuestion(l, first);
+            assertEquals(10, parent.getSubcoachScores().getTotal("strength"), 0);
+            assertEquals(10, parent.getScore("strength").getValue(), 0);
+            assertEquals("ancestors have not been updated", 3, root.getSubcoachScores().getTotal("knowhow"), 0);
+            assertEquals(3, root.getScore("knowhow").getValue(), 0);
+            assertEquals(
+                    "subcoach scores leaked into the roll-up", 0, root.getSubcoachScores().getTotal("strength"), 0);
+
+            context.executeQuestion(l, instanceContext("user-q21", "lib-user.lib-sub.second"));
+            assertEquals(20, parent.getSubcoachScores().getTotal("strength"), 0);
+            assertEquals(20, parent.getScore("strength").getValue(), 0);
+            assertEquals(
+                    10,
+                    parent.getSubcoachScores().getInstances().get("lib-sub.second").get("strength"),
+                    0);
+
+            // removing an instance subtracts its contribution along the tree
+            parent.removeSubcoachScores("lib-sub", "first");
+            assertEquals(10, parent.getSubcoachScores().getTotal("strength"), 0);
+            assertEquals(10, parent.getScore("strength").getValue(), 0);
+            assertEquals(3, root.getSubcoachScores().getTotal("knowhow"), 0);
+            assertEquals(3, root.getScore("knowhow").getValue(), 0);
+        } finally {
+            parent.removeSubcoachScores("lib-sub", "second");
+            context.setParent(null);
+            parent.setParent(null);
+            parent.reset();
+            root.reset();
+        }
+    }
+
+    @Test
+    public void testInstancesSharingQuestions() throws Exception {
+        CySeCExecutorContext parent = CySeCExecutorContextFactory.getExecutorContext("test-rollup-shared");
+        context.setParent(parent);
+        try {
+            CoachContext first = instanceContext("user-q20", "lib-user.lib-sub.first");
+            CoachContext second = instanceContext("user-q20", "lib-user.lib-sub.second");
+            context.executeQuestion(listing(5), first);
+            context.executeQuestion(listing(3), second);
+            assertEquals(5, parent.getSubcoachScores().getInstances().get("lib-sub.first").get("strength"), 0);
+            assertEquals(3, parent.getSubcoachScores().getInstances().get("lib-sub.second").get("strength"), 0);
+            assertEquals(8, parent.getSubcoachScores().getTotal("strength"), 0);
+            assertEquals(8, parent.getScore("strength").getValue(), 0);
+
+            // running the question again for one instance keeps the contribution of the other
+            context.executeQuestion(listing(4), second);
+            assertEquals(9, parent.getSubcoachScores().getTotal("strength"), 0);
+            assertEquals(9, parent.getScore("strength").getValue(), 0);
+            parent.removeSubcoachScores("lib-sub", "first");
+            assertEquals(4, parent.getSubcoachScores().getTotal("strength"), 0);
+            assertEquals(4, parent.getScore("strength").getValue(), 0);
+        } finally {
+            parent.removeSubcoachScores("lib-sub", "second");
+            context.setParent(null);
+            parent.reset();
+        }
+    }
+
+    @Test
+    public void testQualifiedQuestionIds() throws Exception {
+        CySeCExecutorContext parent = CySeCExecutorContextFactory.getExecutorContext("test-rollup-ids");
+        context.setParent(parent);
+        try {
+            context.executeQuestion(listing(5), instanceContext("user-q20", "lib-user.lib-sub.first"));
+            // subcoach contributions are kept under the question id qualified with the instance
+            parent.revertQuestionScore("user-q20");
+            assertEquals(5, parent.getScore("strength").getValue(), 0);
+            parent.revertQuestionScore("lib-sub.first.user-q20");
+            assertEquals(0, parent.getScore("strength").getValue(), 0);
+        } finally {
+            parent.removeSubcoachScores("lib-sub", "first");
+            context.setParent(null);
+            parent.reset();
+        }
+    }
+
+    @Test
+    public void testParentScores() throws Exception {
+        CySeCExecutorContext parent = CySeCExecutorContextFactory.getExecutorContext("test-rollup-pointer");
+        context.setParent(parent);
+        try {
+            List<CySeCLineAtom> l =
+                    new ParserLine("TRUE : a : { parent.addScore(\"strength\", 2); };").getCySeCListing();
+            CoachContext first = instanceContext("user-q20", "lib-user.lib-sub.first");
+            context.executeQuestion(l, first);
+            context.executeQuestion(l, first);
+            assertEquals("parent score has been added twice", 2, parent.getScore("strength").getValue(), 0);
+            context.executeQuestion(l, instanceContext("user-q20", "lib-user.lib-sub.second"));
+            assertEquals(4, parent.getScore("strength").getValue(), 0);
+        } finally {
+            context.setParent(null);
+            parent.reset();
+        }
+    }
+
+    @Test
+    public void testRemovedInstance() throws Exception {
+        CySeCExecutorContext parent = CySeCExecutorContextFactory.getExecutorContext("test-rollup-removed");
+        context.setParent(parent);
+        try {
+            List<CySeCLineAtom> l = new ParserLine(
+                            "TRUE : a : { addScore(\"strength\", 5); parent.addScore(\"knowhow\", 2); };")
+                    .getCySeCListing();
+            context.executeQuestion(l, instanceContext("user-q20", "lib-user.test.first"));
+            parent.removeSubcoachScores("test", "first");
+            assertEquals(0, context.getScore("strength").getValue(), 0);
+            assertEquals(0, parent.getScore("knowhow").getValue(), 0);
+
+            // a new instance of the same name is not charged with the contributions of the removed one
+            context.executeQuestion(l, instanceContext("user-q20", "lib-user.test.first"));
+            assertEquals(2, parent.getSubcoachScores().getTotal("knowhow"), 0);
+            assertEquals(5, context.getScore("strength").getValue(), 0);
+            assertEquals(2, parent.getScore("knowhow").getValue(), 0);
+        } finally {
+            parent.removeSubcoachScores("test", "first");
+            context.setParent(null);
+            parent.reset();
+        }
+    }
+
+    private static List<CySeCLineAtom> listing(int value) throws ParserException {
+        return new ParserLine("TRUE : a : { parent.addScore(\"strength\", " + value + "); };").getCySeCListing();
+    }
+
+    private CoachContext instanceContext(String questionId, String fqcn) {
+        Question q = new Question();
+        q.setId(questionId);
+        CoachContext cc = new CoachContext(context, cal, q, Optional.empty(), coach, FQCN.fromString(fqcn));
+        cc.setLogger(Logger.getGlobal());
+        return cc;
+    }
+}
@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class TestStringPool {
+
+    @Test
+    public void testIntern() {
+        String a = StringPool.intern(new String("strength"));
+        assertTrue("equal strings not canonicalized", StringPool.intern(new String("strength")) == a);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= StringPool.MAX_LENGTH; i++) {
+            sb.append('x');
+        }
+        String s = sb.toString();
+        assertTrue("long string pooled", StringPool.intern(s) == s);
+        assertTrue("null not accepted", StringPool.intern(null) == null);
+    }
+
+    @Test
+    public void testParsedNamesAreShared() throws Exception {
+        List<CySeCLineAtom> l1 = new ParserLine("TRUE : q1 : addScore(\"knowhow\", 1);").getCySeCListing();
+        List<CySeCLineAtom> l2 = new ParserLine("FALSE : q1 : addScore(\"knowhow\", 2);").getCySeCListing();
+        Atom a1 = l1.get(0).getStatements().get(0);
+        Atom a2 = l2.get(0).getStatements().get(0);
+        assertTrue("line names not shared", l1.get(0).getName() == l2.get(0).getName());
+        assertTrue("command names not shared", a1.getId() == a2.getId());
+        assertTrue(
+                "literals not shared",
+                a1.getParameters().get(0).getId() == a2.getParameters().get(0).getId());
+    }
+
+    @Test
+    public void testToLowerCase() {
+        String name = StringPool.intern("KnowHowMax");
+        String lower = StringPool.toLowerCase(name);
+        assertTrue("wrong conversion", "knowhowmax".equals(lower));
+        assertTrue("conversion not cached", StringPool.toLowerCase(name) == lower);
+        assertTrue("unpooled string converted wrongly", "abc".equals(StringPool.toLowerCase(new String("ABC"))));
+    }
+}
@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.Test;
+
+public class TestTypeChecker extends AbstractTestCommands {
+
+    private static Atom parse(String code) throws ParserException {
+        return new ParserLine(code.replace('`', '"') + ";").getAtom();
+    }
+
+    private static void assertRejected(String code, String message) throws ParserException {
+        List<String> problems = TypeChecker.report(new ParserLine(code.replace('`', '"')).getCySeCListing());
+        assertEquals("invalid logic " + code + " has not been rejected", 1, problems.size());
+        assertTrue("unexpected error " + problems.get(0), problems.get(0).contains(message));
+    }
+
+    @Test
+    public void testRejected() throws ParserException {
+        assertRejected(
+                "not(TRUE, FALSE) : a : { addScore(`s`, 1); };",
+                "Invalid number of arguments. Expected 1 parameters but got 2 parameters in command not.");
+        assertRejected(
+                "TRUE : a : { set(`v`, isSelected(1)); };", "Illegal type for parameter 1 of isSelected");
+        assertRejected("and(TRUE, `a`) : a : { addScore(`s`, 1); };", "Illegal type for parameter 2 of and");
+        assertRejected("concat(`a`, `b`) : a : { addScore(`s`, 1); };", "condition of line a does not evaluate");
+    }
+
+    @Test
+    public void testReported() throws ParserException {
+        List<CySeCLineAtom> l = new ParserLine(("FALSE : a : { set(`v`, isSelected(1)); };"
+                                + "TRUE : b : { set(`w`, and(TRUE, not(1))); addScore(`s`, 1); };")
+                        .replace('`', '"'))
+                .getCySeCListing();
+        List<String> problems = TypeChecker.report(l);
+        assertEquals("unexpected problems " + problems, 2, problems.size());
+        assertTrue(problems.get(0).contains("Illegal type for parameter 1 of isSelected"));
+        assertTrue(problems.get(1).contains("Illegal type for parameter 1 of not"));
+        Atom and = l.get(1).getStatements().get(0).getParameters().get(1);
+        assertFalse("rejected call has been marked", and.getParameters().get(1).isTypeChecked());
+        assertTrue("remaining statement has not been marked", l.get(1).getStatements().get(1).isTypeChecked());
+    }
+
+    @Test
+    public void testAccepted() throws ParserException {
+        // comparing other values than numbers is FALSE, not an error
+        TypeChecker.check(parse("greaterThan(`a`, 1)"));
+        // the type of variables is only known at runtime
+        TypeChecker.check(parse("isSelected(get(`option`))"));
+        TypeChecker.check(parse("and(get(`a`), TRUE)"));
+    }
+
+    @Test
+    public void testMarked() throws ParserException {
+        Atom atom = parse("and(isSelected(`user-q20o1`), not(FALSE), equals(get(`x`), 1))");
+        TypeChecker.check(atom);
+        assertTrue("call of proven types has not been marked", atom.isTypeChecked());
+        assertTrue("nested call has not been marked", atom.getParameters().get(0).isTypeChecked());
+        assertFalse("call of unknown types has been marked", atom.getParameters().get(2).isTypeChecked());
+    }
+
+    @Test
+    public void testSameResults() throws Exception {
+        String[] expressions = {
+            "and(TRUE, not(FALSE), or(FALSE, TRUE))",
+            "xor(TRUE, TRUE, FALSE)",
+            "equals(1, 1.0)",
+            "equals(`a`, concat(`a`))",
+            "greaterThanOrEq(2.5, 2)",
+            "contains(concat(`ab`, `cd`), `bc`)",
+            "and(isAnswered(`user-q20`), not(isSelected(`user-q20o2`)))",
+            "get(`x`, 4)",
+        };
+        when(cal.getAnswer(anyString(), anyString())).thenReturn(answer);
+        for (String code : expressions) {
+            Atom unchecked = parse(code);
+            Atom checked = parse(code);
+            TypeChecker.check(checked);
+            Atom expected = unchecked.execute(coachContext);
+            assertEquals("interpreted " + code, expected.getId(), checked.execute(coachContext).getId());
+            assertEquals(
+                    "compiled " + code,
+                    expected.getId(),
+                    AstCompiler.compile(checked).evaluate(coachContext).getId());
+        }
+    }
+}
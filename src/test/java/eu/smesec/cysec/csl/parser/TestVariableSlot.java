@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class TestVariableSlot extends AbstractTestCommands {
+
+    @Test
+    public void testSlots() {
+        VariableSlot slot = VariableSlot.of("slotTest");
+        assertSame("name has been resolved twice", slot, VariableSlot.of("slotTest"));
+        assertSame(slot, VariableSlot.find("slotTest"));
+        assertNull("unused name has been resolved", VariableSlot.find("slotTestUnused"));
+        assertSame("unknown variable is not NULL", Atom.NULL_ATOM, context.getVariable("slotTestUnused", null));
+
+        context.setVariable("slotTest", Atom.ofInteger(1), "q1");
+        assertEquals(1L, context.getVariable(slot, "q1").getLongValue());
+        context.setVariable(slot, Atom.ofInteger(2), "q2");
+        assertEquals(2L, context.getVariable("slotTest", "q2").getLongValue());
+        assertEquals("last value has not been returned", 2L, context.getVariable(slot, null).getLongValue());
+    }
+
+    @Test
+    public void testManyVariables() {
+        for (int i = 0; i < 500; i++) {
+            context.setVariable("slotTest" + i, Atom.ofInteger(i), "q1");
+        }
+        Map<String, Atom> variables = context.getVariables("q1");
+        assertEquals(500, variables.size());
+        assertNull("name set at runtime has been resolved to a slot", VariableSlot.find("slotTest499"));
+        assertEquals(499L, variables.get("slotTest499").getLongValue());
+        context.clearVariables();
+        assertSame(Atom.NULL_ATOM, context.getVariable("slotTest499", "q1"));
+    }
+
+    @Test
+    public void testRevertQuestion() throws Exception {
+        context.setVariable("revertA", Atom.ofInteger(1), "user-q20");
+        context.setVariable("revertB", Atom.ofInteger(2), "user-q21");
+        context.setVariable("__SYSTEM_REVERT", Atom.ofInteger(3), "user-q20");
+        context.executeQuestion(Collections.emptyList(), coachContext);
+        assertNull("variable of the question has been kept", context.getVariable("revertA", "user-q20"));
+        assertEquals(
+                "variable of another question has been cleared",
+                2L,
+                context.getVariable("revertB", "user-q21").getLongValue());
+        assertNull("last value has been kept", context.getVariable("revertB", null));
+        assertEquals(
+                "system variable has been cleared",
+                3L,
+                context.getVariable("__SYSTEM_REVERT", "user-q20").getLongValue());
+
+        // variables set again are cleared again
+        context.setVariable("revertA", Atom.ofInteger(4), "user-q20");
+        context.executeQuestion(Collections.emptyList(), coachContext);
+        assertNull(context.getVariable("revertA", "user-q20"));
+    }
+
+    @Test
+    public void testComputedNames() throws Exception {
+        List<CySeCLineAtom> l = new ParserLine(("TRUE : a : { set(concat(`computed`, `Name`), 5); "
+                        + "set(`copy`, get(concat(`computed`, `Name`))); };")
+                .replace('`', '"'))
+                .getCySeCListing();
+        TypeChecker.report(l);
+        l.forEach(CySeCLineAtom::compile);
+        context.executeQuestion(l, coachContext);
+        assertNull("computed name has been resolved to a slot", VariableSlot.find("computedName"));
+        assertEquals(5L, context.getVariable("computedName", "user-q20").getLongValue());
+        assertEquals(5L, context.getVariable(VariableSlot.of("copy"), "user-q20").getLongValue());
+    }
+
+    @Test
+    public void testCompiledAccess() throws Exception {
+        context.setVariable("__SYSTEM_SLOT_TEST", Atom.ofInteger(7), null);
+        List<CySeCLineAtom> l = new ParserLine(("TRUE : a : { set(`x`, 2); set(`y`, NULL, 3); };"
+                        + "equals(get(`x`), 2) : b : { set(`z`, get(`__SYSTEM_SLOT_TEST`, 0)); };")
+                .replace('`', '"'))
+                .getCySeCListing();
+        TypeChecker.report(l);
+        l.forEach(CySeCLineAtom::compile);
+        context.executeQuestion(l, coachContext);
+        assertEquals(2L, context.getVariable("x", "user-q20").getLongValue());
+        assertEquals(3L, context.getVariable("y", null).getLongValue());
+        assertEquals("system variable has been cleared", 7L, context.getVariable("z", "user-q20").getLongValue());
+    }
+}
@@ -0,0 +1,98 @@
+/*-
+ * #%L
+ * CYSEC Standard Coach Language
+ * %%
+ * Copyright (C) 2020 - 2025 FHNW (University of Applied Sciences and Arts Northwestern Switzerland)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package eu.smesec.cysec.csl.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import eu.smesec.cysec.platform.bridge.generated.Block;
+import eu.smesec.cysec.platform.bridge.generated.Blocks;
+import eu.smesec.cysec.platform.bridge.generated.Question;
+import eu.smesec.cysec.platform.bridge.generated.Questionnaire;
+import eu.smesec.cysec.platform.bridge.generated.Questions;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestQuestionIndex {
+
+    private Questionnaire coach;
+
+    private static Question question(String id) {
+        Question question = new Question();
+        question.setId(id);
+        return question;
+    }
+
+    @Before
+    public void setup() {
+        Questions questions = new Questions();
+        for (int i = 1; i <= 5; i++) {
+            questions.getQuestion().add(question("user-q" + i));
+        }
+        Block block = new Block();
+        block.setId("b2");
+        block.getQidList().add(questions.getQuestion().get(3));
+        Blocks blocks = new Blocks();
+        blocks.getBlock().add(block);
+        coach = new Questionnaire();
+        coach.setQuestions(questions);
+        coach.setBlocks(blocks);
+    }
+
+    @Test
+    public void testLookups() {
+        QuestionIndex index = QuestionIndex.of(coach);
+        assertSame(coach.getQuestions().getQuestion().get(2), index.get("user-q3"));
+        assertSame(index.get("user-q3"), Utils.findById(coach, "user-q3"));
+        assertNull(index.get("user-q6"));
+        assertEquals(4, index.getPosition("user-q5"));
+        assertEquals(-1, index.getPosition("user-q6"));
+        assertEquals("b2", index.getBlockId("user-q4"));
+        assertNull(index.getBlockId("user-q1"));
+        assertSame("index not reused", index, QuestionIndex.of(coach));
+    }
+
+    @Test
+    public void testChangedQuestionnaire() {
+        QuestionIndex.of(coach);
+        coach.getQuestions().getQuestion().add(question("user-q6"));
+        assertEquals(5, QuestionIndex.of(coach).getPosition("user-q6"));
+
+        Questions questions = new Questions();
+        questions.getQuestion().add(question("user-q7"));
+        coach.setQuestions(questions);
+        assertEquals(0, QuestionIndex.of(coach).getPosition("user-q7"));
+        assertNull(Utils.findById(coach, "user-q1"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        QuestionIndex index = QuestionIndex.of(coach);
+        // replacing a question keeps the size of the list
+        coach.getQuestions().getQuestion().set(0, question("user-q8"));
+        assertSame(index, QuestionIndex.of(coach));
+
+        QuestionIndex.invalidate(coach);
+        assertEquals(0, QuestionIndex.of(coach).getPosition("user-q8"));
+        assertNull(Utils.findById(coach, "user-q1"));
+        assertSame(QuestionIndex.of(coach), QuestionIndex.of(coach));
+    }
+}